@@ -4,6 +4,10 @@ import space.delusive.tversu.exception.NoSuchButtonException;
 import space.delusive.tversu.manager.DataManager;
 import space.delusive.tversu.manager.impl.PropertiesManager;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public enum Button {
     // register:
     TO_PREVIOUS_STAGE("register.button.back"),
@@ -36,12 +40,24 @@ public enum Button {
     CHANGE_SETTINGS("menu.settings.button.change"),
     BACK_TO_MAIN_MENU("menu.settings.button.main.menu");
     private static final DataManager buttonsProps = new PropertiesManager("/buttons_ru.properties");
+    private static final Map<String, Button> buttonsByText = indexByText();
 
     public static Button of(String buttonText) {
+        Button button = buttonText == null ? null : buttonsByText.get(fold(buttonText));
+        if (button == null) throw new NoSuchButtonException("Button with text " + buttonText + " not found");
+        return button;
+    }
+
+    private static Map<String, Button> indexByText() {
+        Map<String, Button> index = new HashMap<>();
         for (Button value : Button.values()) {
-            if (buttonsProps.getString(value.nameInProps).equalsIgnoreCase(buttonText)) return value;
+            index.put(fold(value.getLocalizedName()), value);
         }
-        throw new NoSuchButtonException("Button with text " + buttonText + " not found");
+        return Map.copyOf(index);
+    }
+
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT);
     }
 
     private final String nameInProps;
@@ -1,26 +1,55 @@
 package space.delusive.tversu;
 
-import kong.unirest.GsonObjectMapper;
-import kong.unirest.Unirest;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 import space.delusive.tversu.config.ApplicationContextConfiguration;
+import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.webhook.TimingWebhookBot;
+import space.delusive.tversu.webhook.WebhookServer;
+
+import java.io.IOException;
 
 @Log4j2
 public class Main {
+    private static final String WEBHOOK_MODE = "webhook";
+
     public static void main(String[] args) {
-        Unirest.config().setObjectMapper(new GsonObjectMapper());
-        ApplicationContext context = new AnnotationConfigApplicationContext(ApplicationContextConfiguration.class);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ApplicationContextConfiguration.class);
+        context.registerShutdownHook();
+        DataManager config = context.getBean("config", DataManager.class);
         try {
-            TelegramBotsApi api = new TelegramBotsApi(DefaultBotSession.class);
-            api.registerBot(context.getBean(TversuTimingBot.class));
+            if (WEBHOOK_MODE.equals(config.getString("bot.mode"))) {
+                startWebhook(context, config);
+            } else {
+                TelegramBotsApi api = new TelegramBotsApi(DefaultBotSession.class);
+                api.registerBot(context.getBean(TversuTimingBot.class));
+            }
             log.info("TverSU Timing Bot started successfully!");
-        } catch (TelegramApiException e) {
+        } catch (TelegramApiException | IOException e) {
             log.error(e);
         }
     }
+
+    /**
+     * Webhook is registered in Telegram only if its public URL is set,
+     * so without the URL the endpoint can be used locally with recorded updates
+     */
+    private static void startWebhook(AnnotationConfigApplicationContext context, DataManager config)
+            throws IOException, TelegramApiException {
+        TimingWebhookBot webhookBot = new TimingWebhookBot(context.getBean("options", DefaultBotOptions.class),
+                context.getBean(TversuTimingBot.class), config.getString("webhook.path"),
+                config.getInt("webhook.inline.timeout.ms"));
+        WebhookServer server = new WebhookServer(webhookBot, config.getInt("webhook.port"), config.getInt("webhook.threads"));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        String url = config.getString("webhook.url");
+        if (!url.isBlank()) {
+            webhookBot.setWebhook(SetWebhook.builder().url(url + "/" + webhookBot.getBotPath()).build());
+        }
+    }
 }
@@ -12,28 +12,33 @@ import org.telegram.telegrambots.meta.api.methods.send.SendMessage.SendMessageBu
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import space.delusive.tversu.component.KeyboardRegistry;
 import space.delusive.tversu.component.MetricsRegistrar;
-import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.component.OutboundSender;
+import space.delusive.tversu.component.RenderedResponseCache;
+import space.delusive.tversu.component.RenderedResponseCache.View;
+import space.delusive.tversu.component.TimeContextFactory;
+import space.delusive.tversu.component.UpdateDispatcher;
+import space.delusive.tversu.dto.Lesson;
 import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.TimeContext;
 import space.delusive.tversu.dto.WeekSign;
 import space.delusive.tversu.entity.User;
+import space.delusive.tversu.exception.FailureRequestException;
 import space.delusive.tversu.exception.NoSuchButtonException;
 import space.delusive.tversu.exception.SoldisWhatTheFuckException;
 import space.delusive.tversu.manager.DataManager;
-import space.delusive.tversu.manager.KeyboardManager;
-import space.delusive.tversu.manager.impl.KeyboardManagerImpl;
 import space.delusive.tversu.service.FacultyService;
 import space.delusive.tversu.service.TimingService;
 import space.delusive.tversu.service.UserService;
 import space.delusive.tversu.util.BaseUtils;
-import space.delusive.tversu.util.DateUtils;
 
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 @Component
@@ -47,6 +52,11 @@ public class TversuTimingBot extends TelegramLongPollingBot {
     private final TimingService timingService;
     private final FacultyService facultyService;
     private final MetricsRegistrar metricsRegistrar;
+    private final TimeContextFactory timeContextFactory;
+    private final RenderedResponseCache renderedResponseCache;
+    private final KeyboardRegistry keyboardRegistry;
+    private final UpdateDispatcher updateDispatcher;
+    private final OutboundSender outboundSender;
 
     @Autowired
     public TversuTimingBot(@Qualifier("options") DefaultBotOptions options,
@@ -55,7 +65,12 @@ public class TversuTimingBot extends TelegramLongPollingBot {
                            UserService userService,
                            FacultyService facultyService,
                            TimingService timingService,
-                           MetricsRegistrar metricsRegistrar) {
+                           MetricsRegistrar metricsRegistrar,
+                           TimeContextFactory timeContextFactory,
+                           RenderedResponseCache renderedResponseCache,
+                           KeyboardRegistry keyboardRegistry,
+                           UpdateDispatcher updateDispatcher,
+                           OutboundSender outboundSender) {
         super(options);
         this.config = config;
         this.messages = messages;
@@ -63,24 +78,52 @@ public class TversuTimingBot extends TelegramLongPollingBot {
         this.facultyService = facultyService;
         this.timingService = timingService;
         this.metricsRegistrar = metricsRegistrar;
+        this.timeContextFactory = timeContextFactory;
+        this.renderedResponseCache = renderedResponseCache;
+        this.keyboardRegistry = keyboardRegistry;
+        this.updateDispatcher = updateDispatcher;
+        this.outboundSender = outboundSender;
     }
 
 
     @Override
     public void onUpdateReceived(Update update) {
+        handleUpdate(update, this::send, e -> {
+        });
+    }
+
+    /**
+     * Handles a text message of a user on the lane of the user, the same way for long polling and for webhook
+     *
+     * @param responder gets the response to the message when it is ready
+     * @param onFailure  is called instead of the responder if the message could not be handled
+     * @return false if the update is not a text message of a user and is skipped
+     */
+    public boolean handleUpdate(Update update, Consumer<SendMessage> responder, Consumer<RuntimeException> onFailure) {
         boolean isTextMessage = update.hasMessage() && update.getMessage().hasText();
         if (!isTextMessage || !update.getMessage().isUserMessage()) {
-            return;
+            return false;
         }
         Message message = update.getMessage();
         org.telegram.telegrambots.meta.api.objects.User author = message.getFrom();
         log.info("User (ID: {}, FN: {}, LN: {}) sent message with text: {}",
                 author.getId(), author.getFirstName(), author.getLastName(), message.getText());
-        try {
-            handleIncomingMessage(message);
-        } catch (TelegramApiException e) {
-            log.error(e);
-        }
+        updateDispatcher.dispatch(author.getId(), () -> {
+            try {
+                handleIncomingMessage(message, responder);
+            } catch (RuntimeException e) {
+                onFailure.accept(e);
+                throw e;
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Sends the response with a separate API call, the lane does not wait for it
+     */
+    public void send(SendMessage response) {
+        outboundSender.send(response);
     }
 
     @Override
@@ -93,13 +136,13 @@ public class TversuTimingBot extends TelegramLongPollingBot {
         return config.getString("bot.token");
     }
 
-    private void handleIncomingMessage(Message msg) throws TelegramApiException {
+    private void handleIncomingMessage(Message msg, Consumer<SendMessage> responder) {
         long startTime = System.currentTimeMillis();
         long userId = msg.getFrom().getId();
         metricsRegistrar.registerUserCall(userId);
 
         User user = getUser(userId);
-        execute(getResponseBasedOnUserState(msg, user)
+        responder.accept(getResponseBasedOnUserState(msg, user)
                 .chatId(Long.toString(userId))
                 .parseMode(MARKDOWN_PARSE_MODE)
                 .build());
@@ -145,6 +188,9 @@ public class TversuTimingBot extends TelegramLongPollingBot {
         } catch (SoldisWhatTheFuckException e) {
             log.warn(e);
             return messageOnSoldisWhatTheFuckException(user);
+        } catch (FailureRequestException e) {
+            log.warn(e);
+            return messageOnFailureRequestException();
         }
         return null;
     }
@@ -166,7 +212,29 @@ public class TversuTimingBot extends TelegramLongPollingBot {
         updateUserWithState(user, BotState.MAIN_MENU);
         return SendMessage.builder()
                 .text(messages.getString("groups.were.renamed"))
-                .replyMarkup(getMenuKeyboard());
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
+    }
+
+    private SendMessageBuilder messageOnFailureRequestException() {
+        return SendMessage.builder()
+                .text(messages.getString("upstream.unavailable"));
+    }
+
+    /**
+     * Cells are taken on every request even if the text is cached, so an expired timetable is still refreshed
+     */
+    private String getRenderedResponse(User user, WeekSign weekSign, DayOfWeek dayOfWeek, View view, LocalDate today,
+                                       RenderedResponseCache.Renderer renderer) throws SoldisWhatTheFuckException {
+        RenderedResponseCache.Key key = new RenderedResponseCache.Key(user.getFaculty(), user.getGroup(),
+                user.getSubgroup(), weekSign, dayOfWeek, view);
+        return renderedResponseCache.get(key, timingService.getCells(user), today, renderer);
+    }
+
+    private String withOutdatedWarning(String text, User user) {
+        if (!timingService.isTimetableOutdated(user)) {
+            return text;
+        }
+        return text + "\n\n" + messages.getString("timetable.may.be.outdated");
     }
 
     // :exception messages
@@ -197,7 +265,7 @@ public class TversuTimingBot extends TelegramLongPollingBot {
     private SendMessageBuilder messageOnStart(User user) {
         SendMessageBuilder response = SendMessage.builder()
                 .text(messages.getString("start"))
-                .replyMarkup(getFacultiesKeyboard())
+                .replyMarkup(keyboardRegistry.getFacultiesKeyboard())
                 .chatId(Long.toString(user.getId()));
         updateUserWithState(user, BotState.CHOOSING_FACULTY);
         return response;
@@ -207,28 +275,29 @@ public class TversuTimingBot extends TelegramLongPollingBot {
         SendMessageBuilder response = SendMessage.builder();
         if (!facultyService.getFaculties().contains(request.getText())) {
             response.text(messages.getString("invalid.faculty"))
-                    .replyMarkup(getFacultiesKeyboard());
+                    .replyMarkup(keyboardRegistry.getFacultiesKeyboard());
         } else {
             user.setFaculty(request.getText());
             updateUserWithState(user, BotState.CHOOSING_PROGRAM);
             response.text(messages.getString("choose.program"))
-                    .replyMarkup(getProgramKeyboard(request.getText()));
+                    .replyMarkup(keyboardRegistry.getProgramsKeyboard(request.getText()));
         }
         return response;
     }
 
     private SendMessageBuilder messageOnChoosingProgram(Message request, User user) {
-        return processBackButtonWhileRegister(request, user, getFacultiesKeyboard(), "back.to.faculties")
+        return processBackButtonWhileRegister(request, user,
+                keyboardRegistry::getFacultiesKeyboard, "back.to.faculties")
                 .orElseGet(() -> {
                     SendMessageBuilder response = SendMessage.builder();
                     if (!facultyService.getPrograms(user.getFaculty()).contains(request.getText())) {
                         response.text(messages.getString("invalid.program"))
-                                .replyMarkup(getProgramKeyboard(user.getFaculty()));
+                                .replyMarkup(keyboardRegistry.getProgramsKeyboard(user.getFaculty()));
                     } else {
                         user.setProgram(request.getText());
                         updateUserWithState(user, BotState.CHOOSING_COURSE);
                         response.text(messages.getString("choose.course"))
-                                .replyMarkup(getCoursesKeyboard(user));
+                                .replyMarkup(keyboardRegistry.getCoursesKeyboard(user.getFaculty(), user.getProgram()));
                     }
                     return response;
                 });
@@ -243,17 +312,18 @@ public class TversuTimingBot extends TelegramLongPollingBot {
                     user.setCourse(course);
                     updateUserWithState(user, BotState.CHOOSING_GROUP);
                     response.text(messages.getString("choose.group"))
-                            .replyMarkup(getGroupsKeyboard(user));
+                            .replyMarkup(keyboardRegistry.getGroupsKeyboard(user.getFaculty(), user.getProgram(), user.getCourse()));
                 } else {
                     throw new NumberFormatException();
                 }
             } catch (NumberFormatException e) {
                 response.text(messages.getString("invalid.course"))
-                        .replyMarkup(getCoursesKeyboard(user));
+                        .replyMarkup(keyboardRegistry.getCoursesKeyboard(user.getFaculty(), user.getProgram()));
             }
             return response;
         };
-        return processBackButtonWhileRegister(request, user, getProgramKeyboard(user.getFaculty()), "back.to.programs")
+        return processBackButtonWhileRegister(request, user,
+                () -> keyboardRegistry.getProgramsKeyboard(user.getFaculty()), "back.to.programs")
                 .orElseGet(sendMessageSupplier);
     }
 
@@ -263,7 +333,7 @@ public class TversuTimingBot extends TelegramLongPollingBot {
             var groups = facultyService.getGroups(user.getFaculty(), user.getProgram(), user.getCourse());
             if (!groups.contains(request.getText())) {
                 response.text(messages.getString("invalid.group"))
-                        .replyMarkup(getGroupsKeyboard(user));
+                        .replyMarkup(keyboardRegistry.getGroupsKeyboard(user.getFaculty(), user.getProgram(), user.getCourse()));
             } else {
                 user.setGroup(request.getText());
                 int subgroups = facultyService.getSubgroupsCount(user.getFaculty(), user.getProgram(), user.getCourse(), user.getGroup());
@@ -271,16 +341,17 @@ public class TversuTimingBot extends TelegramLongPollingBot {
                     user.setSubgroup(0);
                     updateUserWithState(user, BotState.MAIN_MENU);
                     response.text(messages.getString("register.end"))
-                            .replyMarkup(getMenuKeyboard());
+                            .replyMarkup(keyboardRegistry.getMenuKeyboard());
                 } else {
                     updateUserWithState(user, BotState.CHOOSING_SUBGROUP);
                     response.text(messages.getString("choose.subgroup"))
-                            .replyMarkup(getSubgroupsKeyboard(user));
+                            .replyMarkup(keyboardRegistry.getSubgroupsKeyboard(user.getFaculty(), user.getProgram(), user.getCourse(), user.getGroup()));
                 }
             }
             return response;
         };
-        return processBackButtonWhileRegister(request, user, getCoursesKeyboard(user), "back.to.courses")
+        return processBackButtonWhileRegister(request, user,
+                () -> keyboardRegistry.getCoursesKeyboard(user.getFaculty(), user.getProgram()), "back.to.courses")
                 .orElseGet(sendMessageSupplier);
     }
 
@@ -297,19 +368,22 @@ public class TversuTimingBot extends TelegramLongPollingBot {
                     user.setSubgroup(subgroup);
                     updateUserWithState(user, BotState.MAIN_MENU);
                     response.text(messages.getString("register.end"))
-                            .replyMarkup(getMenuKeyboard());
+                            .replyMarkup(keyboardRegistry.getMenuKeyboard());
                 }
             } catch (NumberFormatException e) {
                 response.text(messages.getString("invalid.subgroup"))
-                        .replyMarkup(getSubgroupsKeyboard(user));
+                        .replyMarkup(keyboardRegistry.getSubgroupsKeyboard(user.getFaculty(), user.getProgram(), user.getCourse(), user.getGroup()));
             }
             return response;
         };
-        return processBackButtonWhileRegister(request, user, getGroupsKeyboard(user), "back.to.groups")
+        return processBackButtonWhileRegister(request, user,
+                () -> keyboardRegistry.getGroupsKeyboard(user.getFaculty(), user.getProgram(), user.getCourse()), "back.to.groups")
                 .orElseGet(sendMessageSupplier);
     }
 
-    private Optional<SendMessageBuilder> processBackButtonWhileRegister(Message request, User user, ReplyKeyboardMarkup replyKeyboardMarkup, String messagePlaceholder) {
+    private Optional<SendMessageBuilder> processBackButtonWhileRegister(Message request, User user,
+                                                                        Supplier<ReplyKeyboardMarkup> previousStageKeyboard,
+                                                                        String messagePlaceholder) {
         boolean isNotBackButtonPressed = !request.getText().equals(Button.TO_PREVIOUS_STAGE.getLocalizedName());
         if (isNotBackButtonPressed) {
             return Optional.empty();
@@ -317,57 +391,13 @@ public class TversuTimingBot extends TelegramLongPollingBot {
         updateUserWithState(user, BotState.getByOrdinal(user.getState().ordinal() - 1));
         SendMessageBuilder response = SendMessage.builder()
                 .text(messages.getString(messagePlaceholder))
-                .replyMarkup(replyKeyboardMarkup);
+                .replyMarkup(previousStageKeyboard.get());
         return Optional.of(response);
     }
 
     // :register messages
 
 
-    // register keyboards:
-
-    private ReplyKeyboardMarkup getFacultiesKeyboard() {
-        var faculties = facultyService.getFaculties();
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
-        faculties.forEach(keyboardManager::addItem);
-        return keyboardManager.getKeyboard();
-    }
-
-    private ReplyKeyboardMarkup getProgramKeyboard(String faculty) {
-        var programs = facultyService.getPrograms(faculty);
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(1);
-        programs.forEach(keyboardManager::addItem);
-        keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
-        return keyboardManager.getKeyboard();
-    }
-
-    private ReplyKeyboardMarkup getCoursesKeyboard(User user) {
-        var courses = facultyService.getCourses(user.getFaculty(), user.getProgram());
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
-        courses.forEach(course -> keyboardManager.addItem(course.toString()));
-        keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
-        return keyboardManager.getKeyboard();
-    }
-
-    private ReplyKeyboardMarkup getGroupsKeyboard(User user) {
-        var groups = facultyService.getGroups(user.getFaculty(), user.getProgram(), user.getCourse());
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
-        groups.forEach(keyboardManager::addItem);
-        keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
-        return keyboardManager.getKeyboard();
-    }
-
-    private ReplyKeyboardMarkup getSubgroupsKeyboard(User user) {
-        int subgroups = facultyService.getSubgroupsCount(user.getFaculty(), user.getProgram(), user.getCourse(), user.getGroup());
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
-        for (int i = 1; i <= subgroups; i++) keyboardManager.addItem(String.valueOf(i));
-        keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
-        return keyboardManager.getKeyboard();
-    }
-
-    // :register keyboards
-
-
     // main menu messages:
 
     private SendMessageBuilder sendMenuMessage(Message request, User user) throws SoldisWhatTheFuckException {
@@ -378,7 +408,7 @@ public class TversuTimingBot extends TelegramLongPollingBot {
             log.debug(e);
             return SendMessage.builder()
                     .text(messages.getString("main.menu.invalid.choice"))
-                    .replyMarkup(getMenuKeyboard());
+                    .replyMarkup(keyboardRegistry.getMenuKeyboard());
         }
         metricsRegistrar.registerPath("/menu/" + userChoice.name().toLowerCase());
         switch (userChoice) {
@@ -404,7 +434,8 @@ public class TversuTimingBot extends TelegramLongPollingBot {
 
     private SendMessageBuilder messageOnChoseCurrentLesson(User user) throws SoldisWhatTheFuckException {
         StringBuilder responseStringBuilder = new StringBuilder();
-        Optional<Cell> currentLesson = timingService.getCurrentLesson(user);
+        TimeContext time = timeContextFactory.capture(user.getFaculty());
+        Optional<Lesson> currentLesson = timingService.getCurrentLesson(user, time);
         if (currentLesson.isPresent()) {
             responseStringBuilder.append(messages.getString("current.lesson")).append("\n\n")
                     .append(currentLesson.get().toLongString());
@@ -412,167 +443,140 @@ public class TversuTimingBot extends TelegramLongPollingBot {
             responseStringBuilder.append(messages.getString("current.lesson.not.found"));
         }
         return SendMessage.builder()
-                .text(responseStringBuilder.toString())
-                .replyMarkup(getMenuKeyboard());
+                .text(withOutdatedWarning(responseStringBuilder.toString(), user))
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     private SendMessageBuilder messageOnChoseNextLesson(User user) throws SoldisWhatTheFuckException {
         StringBuilder responseStringBuilder = new StringBuilder();
-        Optional<Cell> nextLesson = timingService.getNextLesson(user);
+        TimeContext time = timeContextFactory.capture(user.getFaculty());
+        Optional<Lesson> nextLesson = timingService.getNextLesson(user, time);
         if (nextLesson.isPresent()) {
-            responseStringBuilder.append(messages.getString("next.lesson")).append("\n\n")
-                    .append(nextLesson.get().toLongString());
+            Lesson lesson = nextLesson.get();
+            boolean isToday = timingService.isNextLessonToday(user, time);
+            String header = isToday ? messages.getString("next.lesson") : messages.getTemplate("next.lesson.other.day")
+                    .format("day", BaseUtils.getLocalizedNameOfDay(lesson.getDayOfWeek(), messages));
+            responseStringBuilder.append(header).append("\n\n")
+                    .append(lesson.toLongString());
         } else {
             responseStringBuilder.append(messages.getString("next.lesson.not.found"));
         }
         return SendMessage.builder()
-                .text(responseStringBuilder.toString())
-                .replyMarkup(getMenuKeyboard());
+                .text(withOutdatedWarning(responseStringBuilder.toString(), user))
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     private SendMessageBuilder messageOnChoseTodayLessons(User user) throws SoldisWhatTheFuckException {
-        StringBuilder responseStringBuilder = new StringBuilder();
-        List<Cell> todayLessons = timingService.getTodayLessons(user);
-        if (todayLessons.isEmpty()) {
-            responseStringBuilder.append(messages.getString("today.lessons.not.found"));
-        } else {
-            responseStringBuilder.append(messages.getString("today.lessons")).append("\n\n");
-            todayLessons.forEach(cell -> responseStringBuilder.append(cell).append("\n\n"));
-        }
+        TimeContext time = timeContextFactory.capture(user.getFaculty());
+        String text = getRenderedResponse(user, time.getWeekSign(), time.getDayOfWeek(), View.TODAY, time.getDate(), () -> {
+            StringBuilder responseStringBuilder = new StringBuilder();
+            List<Lesson> todayLessons = timingService.getTodayLessons(user, time);
+            if (todayLessons.isEmpty()) {
+                responseStringBuilder.append(messages.getString("today.lessons.not.found"));
+            } else {
+                responseStringBuilder.append(messages.getString("today.lessons")).append("\n\n");
+                todayLessons.forEach(lesson -> responseStringBuilder.append(lesson).append("\n\n"));
+            }
+            return responseStringBuilder.toString();
+        });
         return SendMessage.builder()
-                .text(responseStringBuilder.toString())
-                .replyMarkup(getMenuKeyboard());
+                .text(withOutdatedWarning(text, user))
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     private SendMessageBuilder messageOnChoseTomorrowLessons(User user) throws SoldisWhatTheFuckException {
         StringBuilder builder = new StringBuilder();
-        List<Cell> tomorrowLessons = timingService.getTomorrowOrMondayLessons(user);
-        boolean isTodaySaturday = DateUtils.getCurrentDayOfWeek() == DayOfWeek.SATURDAY;
-        if (tomorrowLessons.isEmpty()) {
-            builder.append(messages.getString("tomorrow.lessons.not.found"));
-        } else {
-            builder.append(isTodaySaturday ?
-                    messages.getString("tomorrow.lessons.monday") :
-                    messages.getString("tomorrow.lessons")).append("\n\n");
-            tomorrowLessons.forEach(cell -> builder.append(cell.toString()).append("\n\n"));
-        }
-        if (DateUtils.isNowBeginningOfDay() && !isTodaySaturday) {
-            String currentDayName = BaseUtils.getLocalizedNameOfDayInAccusative(DateUtils.getCurrentDayOfWeek(), messages);
-            String tomorrowDayName = BaseUtils.getLocalizedNameOfDayInAccusative(DateUtils.getCurrentDayOfWeek().next(), messages);
-            builder.append("\n")
-                    .append(messages.getString("tomorrow.lessons.day.just.began")
-                            .replace("%tomorrow%", tomorrowDayName)
-                            .replace("%today%", currentDayName));
+        TimeContext time = timeContextFactory.capture(user.getFaculty());
+        boolean isTodaySaturday = time.getDayOfWeek() == DayOfWeek.SATURDAY;
+        builder.append(getRenderedResponse(user, time.getWeekSign(), time.getDayOfWeek(), View.TOMORROW, time.getDate(), () -> {
+            StringBuilder lessonsBuilder = new StringBuilder();
+            List<Lesson> tomorrowLessons = timingService.getTomorrowOrMondayLessons(user, time);
+            if (tomorrowLessons.isEmpty()) {
+                lessonsBuilder.append(messages.getString("tomorrow.lessons.not.found"));
+            } else {
+                lessonsBuilder.append(isTodaySaturday ?
+                        messages.getString("tomorrow.lessons.monday") :
+                        messages.getString("tomorrow.lessons")).append("\n\n");
+                tomorrowLessons.forEach(lesson -> lessonsBuilder.append(lesson.toString()).append("\n\n"));
+            }
+            return lessonsBuilder.toString();
+        }));
+        if (time.isBeginningOfDay() && !isTodaySaturday) {
+            String currentDayName = BaseUtils.getLocalizedNameOfDayInAccusative(time.getDayOfWeek(), messages);
+            String tomorrowDayName = BaseUtils.getLocalizedNameOfDayInAccusative(time.getDayOfWeek().next(), messages);
+            messages.getTemplate("tomorrow.lessons.day.just.began")
+                    .formatTo(builder.append("\n"), "tomorrow", tomorrowDayName, "today", currentDayName);
         }
         return SendMessage.builder()
-                .text(builder.toString())
-                .replyMarkup(getMenuKeyboard());
+                .text(withOutdatedWarning(builder.toString(), user))
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     private SendMessageBuilder messageOnChoseRemainingLessonsOfWeek(User user) throws SoldisWhatTheFuckException {
-        StringBuilder responseStringBuilder = new StringBuilder();
-        Map<DayOfWeek, List<Cell>> remainingLessonsOfWeek = timingService.getRemainingLessonsOfWeek(user);
-        if (remainingLessonsOfWeek.isEmpty()) {
-            responseStringBuilder.append(messages.getString("remaining.lessons.of.week.not.found"));
-        } else {
-            responseStringBuilder.append(messages.getString("remaining.lessons.of.week.header")).append("\n\n");
-            remainingLessonsOfWeek.forEach((day, cells) -> {
-                String dayOfWeek = BaseUtils.getLocalizedNameOfDay(day, messages);
-                responseStringBuilder.append("\uD83D\uDD36 *")
-                        .append(BaseUtils.capitalizeString(dayOfWeek))
-                        .append(":*\n\n");
-                cells.forEach(cell -> responseStringBuilder.append(cell.toShortString()).append('\n'));
-                responseStringBuilder.append("\n");
-            });
-        }
+        TimeContext time = timeContextFactory.capture(user.getFaculty());
+        String text = getRenderedResponse(user, time.getWeekSign(), time.getDayOfWeek(), View.REMAINING_OF_WEEK, time.getDate(), () -> {
+            StringBuilder responseStringBuilder = new StringBuilder();
+            Map<DayOfWeek, List<Lesson>> remainingLessonsOfWeek = timingService.getRemainingLessonsOfWeek(user, time);
+            if (remainingLessonsOfWeek.isEmpty()) {
+                responseStringBuilder.append(messages.getString("remaining.lessons.of.week.not.found"));
+            } else {
+                responseStringBuilder.append(messages.getString("remaining.lessons.of.week.header")).append("\n\n");
+                remainingLessonsOfWeek.forEach((day, lessons) -> {
+                    String dayOfWeek = BaseUtils.getLocalizedNameOfDay(day, messages);
+                    responseStringBuilder.append("\uD83D\uDD36 *")
+                            .append(BaseUtils.capitalizeString(dayOfWeek))
+                            .append(":*\n\n");
+                    lessons.forEach(lesson -> responseStringBuilder.append(lesson.toShortString()).append('\n'));
+                    responseStringBuilder.append("\n");
+                });
+            }
+            return responseStringBuilder.toString();
+        });
         return SendMessage.builder()
-                .text(responseStringBuilder.toString())
-                .replyMarkup(getMenuKeyboard());
+                .text(withOutdatedWarning(text, user))
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     private SendMessageBuilder messageOnChoseLessonsOfSpecifiedDay(User user) {
         updateUserWithState(user, BotState.CHOOSING_DAY_OF_WEEK);
         String messageText = messages.getString("timing.specified.day.choose.day");
-        if (DateUtils.getCurrentDayOfWeek() == DayOfWeek.SUNDAY) {
-            WeekSign nextWeekSign = facultyService.getNextWeekSign(user.getFaculty());
-            String localizedNextWeekSign = BaseUtils.getLocalizedNameOfWeekSign(nextWeekSign, messages);
-            messageText += messages.getString("timing.specified.day.choose.day.warning")
-                    .replace("%week%", localizedNextWeekSign);
+        TimeContext time = timeContextFactory.capture(user.getFaculty());
+        if (time.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            String localizedNextWeekSign = BaseUtils.getLocalizedNameOfWeekSign(time.getNextWeekSign(), messages);
+            messageText += messages.getTemplate("timing.specified.day.choose.day.warning")
+                    .format("week", localizedNextWeekSign);
         } else {
-            WeekSign currentWeekSign = facultyService.getCurrentWeekSign(user.getFaculty());
-            String localizedCurrentWeekSign = BaseUtils.getLocalizedNameOfWeekSign(currentWeekSign, messages);
-            messageText += messages.getString("timing.specified.day.choose.day.current.week.sign")
-                    .replace("%week%", localizedCurrentWeekSign);
+            String localizedCurrentWeekSign = BaseUtils.getLocalizedNameOfWeekSign(time.getWeekSign(), messages);
+            messageText += messages.getTemplate("timing.specified.day.choose.day.current.week.sign")
+                    .format("week", localizedCurrentWeekSign);
         }
         return SendMessage.builder()
                 .text(messageText)
-                .replyMarkup(getKeyboardOfWorkingDaysForTwoWeeks());
+                .replyMarkup(keyboardRegistry.getWorkingDaysKeyboard());
     }
 
     private SendMessageBuilder messageOnSettings(User user) {
-        String textResponse = messages.getString("settings")
-                .replace("%faculty%", user.getFaculty())
-                .replace("%program%", user.getProgram())
-                .replace("%course%", String.valueOf(user.getCourse()))
-                .replace("%group%", user.getGroup())
-                .replace("%subgroup%", String.valueOf(user.getSubgroup()));
+        String textResponse = messages.getTemplate("settings").format(
+                "faculty", user.getFaculty(),
+                "program", user.getProgram(),
+                "course", String.valueOf(user.getCourse()),
+                "group", user.getGroup(),
+                "subgroup", String.valueOf(user.getSubgroup()));
         updateUserWithState(user, BotState.SETTINGS_MENU);
         return SendMessage.builder()
                 .text(textResponse)
-                .replyMarkup(getSettingsMenuKeyboard());
+                .replyMarkup(keyboardRegistry.getSettingsMenuKeyboard());
     }
 
     private SendMessageBuilder messageOnFeedback() {
         return SendMessage.builder()
                 .text(messages.getString("feedback"))
-                .replyMarkup(getMenuKeyboard());
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     // :main menu messages
 
 
-    // main menu keyboards:
-
-    private ReplyKeyboardMarkup getMenuKeyboard() {
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
-        keyboardManager.addItem(Button.CURRENT_LESSON);
-        keyboardManager.addItem(Button.NEXT_LESSON);
-        keyboardManager.addItemOnNewLine(Button.TODAY_LESSONS);
-        keyboardManager.addItemOnNewLine(Button.TOMORROW_LESSONS);
-        keyboardManager.addItemOnNewLine(Button.REMAINING_LESSONS_OF_WEEK);
-        keyboardManager.addItemOnNewLine(Button.LESSONS_OF_SPECIFIED_DAY);
-        keyboardManager.addItemOnNewLine(Button.SETTINGS);
-        keyboardManager.addItem(Button.FEEDBACK);
-        return keyboardManager.getKeyboard();
-    }
-
-    private ReplyKeyboardMarkup getKeyboardOfWorkingDaysForTwoWeeks() {
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
-        keyboardManager.addItem(Button.MONDAY_PLUS_WEEK);
-        keyboardManager.addItem(Button.MONDAY_MINUS_WEEK);
-        keyboardManager.addItem(Button.TUESDAY_PLUS_WEEK);
-        keyboardManager.addItem(Button.TUESDAY_MINUS_WEEK);
-        keyboardManager.addItem(Button.WEDNESDAY_PLUS_WEEK);
-        keyboardManager.addItem(Button.WEDNESDAY_MINUS_WEEK);
-        keyboardManager.addItem(Button.THURSDAY_PLUS_WEEK);
-        keyboardManager.addItem(Button.THURSDAY_MINUS_WEEK);
-        keyboardManager.addItem(Button.FRIDAY_PLUS_WEEK);
-        keyboardManager.addItem(Button.FRIDAY_MINUS_WEEK);
-        keyboardManager.addItem(Button.SATURDAY_PLUS_WEEK);
-        keyboardManager.addItem(Button.SATURDAY_MINUS_WEEK);
-        return keyboardManager.getKeyboard();
-    }
-
-    private ReplyKeyboardMarkup getSettingsMenuKeyboard() {
-        KeyboardManager keyboardManager = new KeyboardManagerImpl(1);
-        keyboardManager.addItem(Button.CHANGE_SETTINGS);
-        keyboardManager.addItem(Button.BACK_TO_MAIN_MENU);
-        return keyboardManager.getKeyboard();
-    }
-
-    // :main menu keyboards
-
-
     // choosing day of week while want to get timing of specific day:
 
     private SendMessageBuilder messageOnChoosingDayOfWeek(Message request, User user) throws SoldisWhatTheFuckException { // TODO: 3/3/2020 refactor this shit
@@ -585,29 +589,28 @@ public class TversuTimingBot extends TelegramLongPollingBot {
             log.debug(e);
             return SendMessage.builder()
                     .text(messages.getString("timing.specified.day.invalid"))
-                    .replyMarkup(getKeyboardOfWorkingDaysForTwoWeeks());
+                    .replyMarkup(keyboardRegistry.getWorkingDaysKeyboard());
         }
         DayOfWeek dayOfWeek = DayOfWeek.valueOf(splitButtonName[0]);
         WeekSign weekSign = WeekSign.valueOf(splitButtonName[1]);
-        List<Cell> lessonsOfSpecifiedDay = timingService.getLessonsOfSpecifiedDay(user, dayOfWeek, weekSign);
-        SendMessageBuilder response = SendMessage.builder()
-                .chatId(Long.toString(user.getId()));
-        if (lessonsOfSpecifiedDay.isEmpty()) {
-            log.warn("There are no lessons found for faculty \"{}\", course \"{}\", group \"{}\" and subgroup \"{}\"",
-                    user.getFaculty(), user.getCourse(), user.getGroup(), user.getSubgroup());
-            response.text(BaseUtils.getFormattedMessageInAccusative(dayOfWeek, weekSign, messages,
-                    "timing.specified.day.no.lessons"));
-        } else {
+        String text = getRenderedResponse(user, weekSign, dayOfWeek, View.SPECIFIED_DAY, timeContextFactory.getCurrentDate(), () -> {
+            List<Lesson> lessonsOfSpecifiedDay = timingService.getLessonsOfSpecifiedDay(user, dayOfWeek, weekSign);
+            if (lessonsOfSpecifiedDay.isEmpty()) {
+                log.warn("There are no lessons found for faculty \"{}\", course \"{}\", group \"{}\" and subgroup \"{}\"",
+                        user.getFaculty(), user.getCourse(), user.getGroup(), user.getSubgroup());
+                return BaseUtils.getFormattedMessageInAccusative(dayOfWeek, weekSign, messages, "timing.specified.day.no.lessons");
+            }
             StringBuilder stringBuilder = new StringBuilder(
-                    BaseUtils.getFormattedMessageInAccusative(dayOfWeek, weekSign, messages, "timing.specified.day")
-                            .replaceAll("%day%", BaseUtils.getLocalizedNameOfDayInAccusative(dayOfWeek, messages))
-                            .replaceAll("%week%", BaseUtils.getLocalizedNameOfWeekSign(weekSign, messages)))
+                    BaseUtils.getFormattedMessageInAccusative(dayOfWeek, weekSign, messages, "timing.specified.day"))
                     .append("\n\n");
-            lessonsOfSpecifiedDay.forEach(cell -> stringBuilder.append(cell.toString()).append("\n\n"));
-            response.text(stringBuilder.toString());
-        }
+            lessonsOfSpecifiedDay.forEach(lesson -> stringBuilder.append(lesson.toString()).append("\n\n"));
+            return stringBuilder.toString();
+        });
         updateUserWithState(user, BotState.MAIN_MENU);
-        return response.replyMarkup(getMenuKeyboard());
+        return SendMessage.builder()
+                .chatId(Long.toString(user.getId()))
+                .text(withOutdatedWarning(text, user))
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     // :choosing day of week while want to get timing of specific day
@@ -623,7 +626,7 @@ public class TversuTimingBot extends TelegramLongPollingBot {
             log.debug(e);
             return SendMessage.builder()
                     .text(messages.getString("settings.menu.invalid.choice"))
-                    .replyMarkup(getMenuKeyboard());
+                    .replyMarkup(keyboardRegistry.getMenuKeyboard());
         }
         metricsRegistrar.registerPath("/settings/" + userChoice.name().toLowerCase());
         SendMessageBuilder response = null;
@@ -642,14 +645,14 @@ public class TversuTimingBot extends TelegramLongPollingBot {
         updateUserWithState(user, BotState.CHOOSING_FACULTY);
         return SendMessage.builder()
                 .text(messages.getString("change.settings"))
-                .replyMarkup(getFacultiesKeyboard());
+                .replyMarkup(keyboardRegistry.getFacultiesKeyboard());
     }
 
     private SendMessageBuilder messageOnBackToMainMenu(User user) {
         updateUserWithState(user, BotState.MAIN_MENU);
         return SendMessage.builder()
                 .text(messages.getString("settings.menu.back.to.main.menu"))
-                .replyMarkup(getMenuKeyboard());
+                .replyMarkup(keyboardRegistry.getMenuKeyboard());
     }
 
     // :settings menu
@@ -0,0 +1,95 @@
+package space.delusive.tversu.component;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.dto.CacheSnapshot;
+import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.rest.impl.CachingCellRepository;
+import space.delusive.tversu.service.impl.FacultyServiceImpl;
+import space.delusive.tversu.util.CacheSnapshotCodec;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically saves timetable and group catalog caches to a local file and restores them on startup,
+ * so after restart the bot does not send all the first requests to the upstream at once
+ */
+@Log4j2
+@Component
+public class CacheSnapshotManager {
+    private final CachingCellRepository cellRepository;
+    private final FacultyServiceImpl facultyService;
+    private final Path snapshotPath;
+    private final long maxAgeMillis;
+
+    @Autowired
+    public CacheSnapshotManager(CachingCellRepository cellRepository,
+                                FacultyServiceImpl facultyService,
+                                @Qualifier("config") DataManager config) {
+        this.cellRepository = cellRepository;
+        this.facultyService = facultyService;
+        this.snapshotPath = Paths.get(config.getString("snapshot.path"));
+        this.maxAgeMillis = TimeUnit.HOURS.toMillis(config.getInt("snapshot.max.age.hours"));
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!Files.exists(snapshotPath)) {
+            log.info("There is no cache snapshot at {}, starting with empty caches", snapshotPath);
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        Optional<CacheSnapshot> snapshot;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            snapshot = CacheSnapshotCodec.decode(buffer);
+        } catch (IOException e) {
+            log.warn("Could not read cache snapshot {}", snapshotPath, e);
+            return;
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        if (startTime - snapshot.get().getCreatedTime() > maxAgeMillis) {
+            log.info("Cache snapshot {} is too old, ignoring it", snapshotPath);
+            return;
+        }
+        facultyService.restoreCatalogs(snapshot.get().getCatalogs());
+        cellRepository.restore(snapshot.get().getTimetables());
+        log.info("Restored {} catalogs and {} timetables from {} in {} ms", snapshot.get().getCatalogs().size(),
+                snapshot.get().getTimetables().size(), snapshotPath, System.currentTimeMillis() - startTime);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${snapshot.interval.ms}", initialDelayString = "${snapshot.interval.ms}")
+    public void save() {
+        CacheSnapshot snapshot = new CacheSnapshot(System.currentTimeMillis(),
+                facultyService.getCachedCatalogs(), cellRepository.getCachedCells());
+        if (snapshot.getCatalogs().isEmpty() && snapshot.getTimetables().isEmpty()) {
+            return;
+        }
+        Path temporaryPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            Files.write(temporaryPath, CacheSnapshotCodec.encode(snapshot));
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} catalogs and {} timetables to {}", snapshot.getCatalogs().size(),
+                    snapshot.getTimetables().size(), snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save cache snapshot to {}", snapshotPath, e);
+        }
+    }
+}
@@ -9,14 +9,16 @@ import org.springframework.scheduling.annotation.Scheduled;
 import space.delusive.tversu.repository.UserRepository;
 
 import javax.annotation.PostConstruct;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 public class DefaultMetricsRegistrar implements MetricsRegistrar {
-    private final Set<Long> users = new HashSet<>();
+    // updates are handled on several lanes at once
+    private final Set<Long> users = ConcurrentHashMap.newKeySet();
     private final MeterRegistry meterRegistry;
     private final UserRepository userRepository;
 
@@ -62,4 +64,71 @@ public class DefaultMetricsRegistrar implements MetricsRegistrar {
     public void registerTimeConsumed(long millisecond) {
         timer.record(millisecond, TimeUnit.MILLISECONDS);
     }
+
+    public void registerCacheHit(String cache) {
+        meterRegistry.counter("rt.cache.hits", "cache", cache).increment();
+    }
+
+    public void registerCacheMiss(String cache) {
+        meterRegistry.counter("rt.cache.misses", "cache", cache).increment();
+    }
+
+    public void registerCacheEviction(String cache) {
+        meterRegistry.counter("rt.cache.evictions", "cache", cache).increment();
+    }
+
+    public void registerCoalescedRequest(String endpoint) {
+        meterRegistry.counter("rt.upstream.coalesced", "endpoint", endpoint).increment();
+    }
+
+    public void registerRevalidation(String endpoint, String outcome) {
+        meterRegistry.counter("rt.upstream.revalidations", "endpoint", endpoint, "outcome", outcome).increment();
+    }
+
+    public void registerRevalidationBytesSaved(String endpoint, long bytes) {
+        meterRegistry.counter("rt.upstream.revalidation.saved.bytes", "endpoint", endpoint).increment(bytes);
+    }
+
+    public void registerUpstreamCall(String endpoint, long queueNanos, long networkNanos, String status) {
+        meterRegistry.timer("rt.upstream.queue.time", "endpoint", endpoint).record(queueNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.timer("rt.upstream.network.time", "endpoint", endpoint, "status", status)
+                .record(networkNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registerUpstreamRejection(String endpoint) {
+        meterRegistry.counter("rt.upstream.rejections", "endpoint", endpoint).increment();
+    }
+
+    public void registerCircuitBreaker(String endpoint, Supplier<Number> state) {
+        Gauge.builder("rt.upstream.circuit.state", state)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    public void registerNotification(String outcome) {
+        meterRegistry.counter("rt.notifications", "outcome", outcome).increment();
+    }
+
+    public void registerUpdateLane(int lane, Supplier<Number> queueDepth) {
+        Gauge.builder("rt.updates.lane.depth", queueDepth)
+                .tag("lane", Integer.toString(lane))
+                .register(meterRegistry);
+    }
+
+    public void registerUpdateWait(int lane, long waitNanos) {
+        meterRegistry.timer("rt.updates.lane.wait", "lane", Integer.toString(lane)).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registerOutboundQueue(Supplier<Number> queueDepth) {
+        Gauge.builder("rt.outbound.queue.depth", queueDepth)
+                .register(meterRegistry);
+    }
+
+    public void registerOutboundSend(String outcome, long latencyNanos) {
+        meterRegistry.timer("rt.outbound.send", "outcome", outcome).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registerOutboundRetry() {
+        meterRegistry.counter("rt.outbound.retries").increment();
+    }
 }
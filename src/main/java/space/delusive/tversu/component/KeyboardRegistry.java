@@ -0,0 +1,159 @@
+package space.delusive.tversu.component;
+
+import lombok.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import space.delusive.tversu.Button;
+import space.delusive.tversu.dto.CatalogsRefreshedEvent;
+import space.delusive.tversu.manager.KeyboardManager;
+import space.delusive.tversu.manager.impl.KeyboardManagerImpl;
+import space.delusive.tversu.service.FacultyService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keyboards are only read after they are built, so one instance of a keyboard is sent in every response.
+ * Menu keyboards are built at startup, keyboards of the catalog are built on first demand
+ * and are dropped when the catalogs are refreshed
+ */
+@Component
+public class KeyboardRegistry {
+    private final FacultyService facultyService;
+    private final ReplyKeyboardMarkup menuKeyboard;
+    private final ReplyKeyboardMarkup workingDaysKeyboard;
+    private final ReplyKeyboardMarkup settingsMenuKeyboard;
+    private volatile Map<Key, ReplyKeyboardMarkup> catalogKeyboards = new ConcurrentHashMap<>();
+
+    public KeyboardRegistry(FacultyService facultyService) {
+        this.facultyService = facultyService;
+        this.menuKeyboard = buildMenuKeyboard();
+        this.workingDaysKeyboard = buildWorkingDaysKeyboard();
+        this.settingsMenuKeyboard = buildSettingsMenuKeyboard();
+    }
+
+    public ReplyKeyboardMarkup getMenuKeyboard() {
+        return menuKeyboard;
+    }
+
+    public ReplyKeyboardMarkup getWorkingDaysKeyboard() {
+        return workingDaysKeyboard;
+    }
+
+    public ReplyKeyboardMarkup getSettingsMenuKeyboard() {
+        return settingsMenuKeyboard;
+    }
+
+    public ReplyKeyboardMarkup getFacultiesKeyboard() {
+        return getCatalogKeyboard(new Key(null, null, 0, null), () -> {
+            KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
+            facultyService.getFaculties().forEach(keyboardManager::addItem);
+            return keyboardManager.getKeyboard();
+        });
+    }
+
+    public ReplyKeyboardMarkup getProgramsKeyboard(String faculty) {
+        return getCatalogKeyboard(new Key(faculty, null, 0, null), () -> {
+            KeyboardManager keyboardManager = new KeyboardManagerImpl(1);
+            facultyService.getPrograms(faculty).forEach(keyboardManager::addItem);
+            keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
+            return keyboardManager.getKeyboard();
+        });
+    }
+
+    public ReplyKeyboardMarkup getCoursesKeyboard(String faculty, String program) {
+        return getCatalogKeyboard(new Key(faculty, program, 0, null), () -> {
+            KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
+            facultyService.getCourses(faculty, program).forEach(course -> keyboardManager.addItem(course.toString()));
+            keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
+            return keyboardManager.getKeyboard();
+        });
+    }
+
+    public ReplyKeyboardMarkup getGroupsKeyboard(String faculty, String program, int course) {
+        return getCatalogKeyboard(new Key(faculty, program, course, null), () -> {
+            KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
+            facultyService.getGroups(faculty, program, course).forEach(keyboardManager::addItem);
+            keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
+            return keyboardManager.getKeyboard();
+        });
+    }
+
+    public ReplyKeyboardMarkup getSubgroupsKeyboard(String faculty, String program, int course, String group) {
+        return getCatalogKeyboard(new Key(faculty, program, course, group), () -> {
+            int subgroups = facultyService.getSubgroupsCount(faculty, program, course, group);
+            KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
+            for (int i = 1; i <= subgroups; i++) keyboardManager.addItem(String.valueOf(i));
+            keyboardManager.addItemOnNewLine(Button.TO_PREVIOUS_STAGE);
+            return keyboardManager.getKeyboard();
+        });
+    }
+
+    /**
+     * Keyboards that are being built during the refresh are put into the replaced map and are lost
+     */
+    @EventListener
+    public void onCatalogsRefreshed(CatalogsRefreshedEvent event) {
+        catalogKeyboards = new ConcurrentHashMap<>();
+    }
+
+    private ReplyKeyboardMarkup getCatalogKeyboard(Key key, Supplier<ReplyKeyboardMarkup> builder) {
+        Map<Key, ReplyKeyboardMarkup> keyboards = catalogKeyboards;
+        ReplyKeyboardMarkup keyboard = keyboards.get(key);
+        if (keyboard == null) {
+            keyboard = builder.get();
+            keyboards.put(key, keyboard);
+        }
+        return keyboard;
+    }
+
+    private static ReplyKeyboardMarkup buildMenuKeyboard() {
+        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
+        keyboardManager.addItem(Button.CURRENT_LESSON);
+        keyboardManager.addItem(Button.NEXT_LESSON);
+        keyboardManager.addItemOnNewLine(Button.TODAY_LESSONS);
+        keyboardManager.addItemOnNewLine(Button.TOMORROW_LESSONS);
+        keyboardManager.addItemOnNewLine(Button.REMAINING_LESSONS_OF_WEEK);
+        keyboardManager.addItemOnNewLine(Button.LESSONS_OF_SPECIFIED_DAY);
+        keyboardManager.addItemOnNewLine(Button.SETTINGS);
+        keyboardManager.addItem(Button.FEEDBACK);
+        return keyboardManager.getKeyboard();
+    }
+
+    private static ReplyKeyboardMarkup buildWorkingDaysKeyboard() {
+        KeyboardManager keyboardManager = new KeyboardManagerImpl(2);
+        keyboardManager.addItem(Button.MONDAY_PLUS_WEEK);
+        keyboardManager.addItem(Button.MONDAY_MINUS_WEEK);
+        keyboardManager.addItem(Button.TUESDAY_PLUS_WEEK);
+        keyboardManager.addItem(Button.TUESDAY_MINUS_WEEK);
+        keyboardManager.addItem(Button.WEDNESDAY_PLUS_WEEK);
+        keyboardManager.addItem(Button.WEDNESDAY_MINUS_WEEK);
+        keyboardManager.addItem(Button.THURSDAY_PLUS_WEEK);
+        keyboardManager.addItem(Button.THURSDAY_MINUS_WEEK);
+        keyboardManager.addItem(Button.FRIDAY_PLUS_WEEK);
+        keyboardManager.addItem(Button.FRIDAY_MINUS_WEEK);
+        keyboardManager.addItem(Button.SATURDAY_PLUS_WEEK);
+        keyboardManager.addItem(Button.SATURDAY_MINUS_WEEK);
+        return keyboardManager.getKeyboard();
+    }
+
+    private static ReplyKeyboardMarkup buildSettingsMenuKeyboard() {
+        KeyboardManager keyboardManager = new KeyboardManagerImpl(1);
+        keyboardManager.addItem(Button.CHANGE_SETTINGS);
+        keyboardManager.addItem(Button.BACK_TO_MAIN_MENU);
+        return keyboardManager.getKeyboard();
+    }
+
+    /**
+     * Catalog path the keyboard lists the children of, the unused tail of the path is empty
+     */
+    @Value
+    private static class Key {
+        String faculty;
+        String program;
+        int course;
+        String group;
+    }
+}
@@ -1,9 +1,47 @@
 package space.delusive.tversu.component;
 
+import java.util.function.Supplier;
+
 public interface MetricsRegistrar {
     void registerPath(String path);
 
     void registerUserCall(long userId);
 
     void registerTimeConsumed(long millisecond);
+
+    void registerCacheHit(String cache);
+
+    void registerCacheMiss(String cache);
+
+    void registerCacheEviction(String cache);
+
+    void registerCoalescedRequest(String endpoint);
+
+    void registerRevalidation(String endpoint, String outcome);
+
+    void registerRevalidationBytesSaved(String endpoint, long bytes);
+
+    void registerUpstreamCall(String endpoint, long queueNanos, long networkNanos, String status);
+
+    void registerUpstreamRejection(String endpoint);
+
+    /**
+     * @param state 0 if closed, 1 if half-open, 2 if open
+     */
+    void registerCircuitBreaker(String endpoint, Supplier<Number> state);
+
+    void registerNotification(String outcome);
+
+    void registerUpdateLane(int lane, Supplier<Number> queueDepth);
+
+    void registerUpdateWait(int lane, long waitNanos);
+
+    void registerOutboundQueue(Supplier<Number> queueDepth);
+
+    /**
+     * @param latencyNanos time from the moment the message was queued till Telegram answered
+     */
+    void registerOutboundSend(String outcome, long latencyNanos);
+
+    void registerOutboundRetry();
 }
@@ -1,5 +1,7 @@
 package space.delusive.tversu.component;
 
+import java.util.function.Supplier;
+
 public class MockMetricsRegistrar implements MetricsRegistrar {
     @Override
     public void registerPath(String path) {
@@ -15,4 +17,79 @@ public class MockMetricsRegistrar implements MetricsRegistrar {
     public void registerTimeConsumed(long millisecond) {
 
     }
+
+    @Override
+    public void registerCacheHit(String cache) {
+
+    }
+
+    @Override
+    public void registerCacheMiss(String cache) {
+
+    }
+
+    @Override
+    public void registerCacheEviction(String cache) {
+
+    }
+
+    @Override
+    public void registerCoalescedRequest(String endpoint) {
+
+    }
+
+    @Override
+    public void registerRevalidation(String endpoint, String outcome) {
+
+    }
+
+    @Override
+    public void registerRevalidationBytesSaved(String endpoint, long bytes) {
+
+    }
+
+    @Override
+    public void registerUpstreamCall(String endpoint, long queueNanos, long networkNanos, String status) {
+
+    }
+
+    @Override
+    public void registerUpstreamRejection(String endpoint) {
+
+    }
+
+    @Override
+    public void registerCircuitBreaker(String endpoint, Supplier<Number> state) {
+
+    }
+
+    @Override
+    public void registerNotification(String outcome) {
+
+    }
+
+    @Override
+    public void registerUpdateLane(int lane, Supplier<Number> queueDepth) {
+
+    }
+
+    @Override
+    public void registerUpdateWait(int lane, long waitNanos) {
+
+    }
+
+    @Override
+    public void registerOutboundQueue(Supplier<Number> queueDepth) {
+
+    }
+
+    @Override
+    public void registerOutboundSend(String outcome, long latencyNanos) {
+
+    }
+
+    @Override
+    public void registerOutboundRetry() {
+
+    }
 }
@@ -0,0 +1,79 @@
+package space.delusive.tversu.component;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import space.delusive.tversu.manager.DataManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends notifications from a bounded queue at a limited rate, so a change of many timetables at once
+ * does not take the whole Telegram limit from answers to users. Notifications above the queue are dropped.
+ * The messages themselves go through {@link OutboundSender}, so they count against the same limits as answers
+ */
+@Component
+public class NotificationSender {
+    private static final String MARKDOWN_PARSE_MODE = "Markdown";
+
+    private final OutboundSender outboundSender;
+    private final MetricsRegistrar metricsRegistrar;
+    private final BlockingQueue<SendMessage> notifications;
+    private final long intervalNanos;
+    private final Thread senderThread = new Thread(this::sendQueuedNotifications, "notifications");
+
+    @Autowired
+    public NotificationSender(OutboundSender outboundSender,
+                              MetricsRegistrar metricsRegistrar,
+                              @Qualifier("config") DataManager config) {
+        this.outboundSender = outboundSender;
+        this.metricsRegistrar = metricsRegistrar;
+        this.notifications = new ArrayBlockingQueue<>(config.getInt("notifications.queue.size"));
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getInt("notifications.messages.per.second");
+    }
+
+    @PostConstruct
+    public void start() {
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senderThread.interrupt();
+    }
+
+    /**
+     * @return false if the queue is full and the notification was dropped
+     */
+    public boolean send(long chatId, String text) {
+        SendMessage message = SendMessage.builder()
+                .chatId(Long.toString(chatId))
+                .text(text)
+                .parseMode(MARKDOWN_PARSE_MODE)
+                .build();
+        if (!notifications.offer(message)) {
+            metricsRegistrar.registerNotification("dropped");
+            return false;
+        }
+        return true;
+    }
+
+    private void sendQueuedNotifications() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                SendMessage message = notifications.take();
+                outboundSender.send(message).whenComplete((sent, error) ->
+                        metricsRegistrar.registerNotification(error == null ? "sent" : "failed"));
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package space.delusive.tversu.component;
+
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.util.TokenBucket;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Sends messages without blocking the caller. Messages of a chat wait in the queue of the chat
+ * and are sent one after another, so they come in the order they were sent.
+ * The first message of a chat waits for a token of the chat, and only then for a token of the whole bot,
+ * so a chat that has to wait does not hold messages of other chats.
+ * If Telegram still answers 429, the message is sent again after the time Telegram asked to wait,
+ * and the chat gets no tokens until then
+ */
+@Log4j2
+@Component
+public class OutboundSender {
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final Function<SendMessage, CompletableFuture<Message>> api;
+    private final MetricsRegistrar metricsRegistrar;
+    private final int queueSize;
+    private final int maxRetries;
+    private final long backoffNanos;
+    private final int chatMessagesPerSecond;
+    private final int chatBurst;
+    private final TokenBucket globalBucket;
+    private final Map<String, ChatQueue> chats = new HashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbound");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param sender is lazy, because the bot sends its own responses through this sender
+     */
+    @Autowired
+    public OutboundSender(@Lazy AbsSender sender,
+                          MetricsRegistrar metricsRegistrar,
+                          @Qualifier("config") DataManager config) {
+        this(message -> executeAsync(sender, message), metricsRegistrar, config);
+    }
+
+    /**
+     * @param api sends the message to Telegram
+     */
+    OutboundSender(Function<SendMessage, CompletableFuture<Message>> api,
+                   MetricsRegistrar metricsRegistrar,
+                   DataManager config) {
+        this.api = api;
+        this.metricsRegistrar = metricsRegistrar;
+        this.queueSize = config.getInt("outbound.queue.size");
+        this.maxRetries = config.getInt("outbound.max.retries");
+        this.backoffNanos = TimeUnit.MILLISECONDS.toNanos(config.getInt("outbound.backoff.ms"));
+        this.chatMessagesPerSecond = config.getInt("outbound.chat.messages.per.second");
+        this.chatBurst = config.getInt("outbound.chat.burst");
+        this.globalBucket = new TokenBucket(config.getInt("outbound.global.messages.per.second"),
+                config.getInt("outbound.global.burst"));
+    }
+
+    @PostConstruct
+    public void start() {
+        metricsRegistrar.registerOutboundQueue(queued::get);
+        scheduler.scheduleWithFixedDelay(this::forgetIdleChats, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return future of the sent message, it fails if the queue is full or Telegram did not accept the message
+     */
+    public CompletableFuture<Message> send(SendMessage message) {
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            metricsRegistrar.registerOutboundSend("dropped", 0);
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Outbound queue is full, message to chat " + message.getChatId() + " is dropped"));
+        }
+        CompletableFuture<Message> result = new CompletableFuture<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            ChatQueue chat = chats.computeIfAbsent(message.getChatId(),
+                    chatId -> new ChatQueue(new TokenBucket(chatMessagesPerSecond, chatBurst)));
+            chat.messages.add(new QueuedMessage(message, result, now, 0));
+            scheduleHead(chat, now);
+        }
+        return result;
+    }
+
+    /**
+     * Reserves a token of the chat for its first message, unless the previous message is still on its way
+     */
+    private synchronized void scheduleHead(ChatQueue chat, long notBefore) {
+        if (chat.sending || chat.messages.isEmpty()) {
+            return;
+        }
+        chat.sending = true;
+        schedule(chat, () -> takeGlobalToken(chat), chat.bucket.reserve(notBefore));
+    }
+
+    /**
+     * The token of the whole bot is taken only when the message is due, so waiting chats do not hold it
+     */
+    private void takeGlobalToken(ChatQueue chat) {
+        schedule(chat, () -> sendHead(chat), globalBucket.reserve(System.nanoTime()));
+    }
+
+    private void schedule(ChatQueue chat, Runnable task, long at) {
+        try {
+            scheduler.schedule(task, at - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            QueuedMessage head;
+            synchronized (this) {
+                head = chat.messages.peek();
+            }
+            complete(chat, head, null, e);
+        }
+    }
+
+    private void sendHead(ChatQueue chat) {
+        QueuedMessage head;
+        synchronized (this) {
+            head = chat.messages.peek();
+        }
+        try {
+            api.apply(head.getMessage()).whenComplete((message, error) -> complete(chat, head, message, error));
+        } catch (RuntimeException e) {
+            complete(chat, head, null, e);
+        }
+    }
+
+    private synchronized void complete(ChatQueue chat, QueuedMessage head, Message message, Throwable error) {
+        chat.sending = false;
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TelegramApiRequestException && isTooManyRequests((TelegramApiRequestException) cause)
+                && head.getAttempt() < maxRetries) {
+            retry(chat, head, (TelegramApiRequestException) cause);
+            return;
+        }
+        chat.messages.poll();
+        queued.decrementAndGet();
+        long latencyNanos = System.nanoTime() - head.getQueuedAt();
+        if (cause == null) {
+            metricsRegistrar.registerOutboundSend("sent", latencyNanos);
+            head.getResult().complete(message);
+        } else {
+            metricsRegistrar.registerOutboundSend("failed", latencyNanos);
+            log.warn("Could not send message to chat {}", head.getMessage().getChatId(), cause);
+            head.getResult().completeExceptionally(cause);
+        }
+        scheduleHead(chat, System.nanoTime());
+    }
+
+    /**
+     * Waits as long as Telegram asked, or doubles the backoff with every attempt if it did not say.
+     * The message stays the first one of its chat, so newer messages are not sent before it
+     */
+    private void retry(ChatQueue chat, QueuedMessage head, TelegramApiRequestException e) {
+        Integer retryAfterSeconds = e.getParameters() != null ? e.getParameters().getRetryAfter() : null;
+        long delayNanos = retryAfterSeconds != null
+                ? TimeUnit.SECONDS.toNanos(retryAfterSeconds)
+                : backoffNanos << head.getAttempt();
+        long retryAt = System.nanoTime() + delayNanos;
+        log.info("Telegram asked to wait {} ms before sending to chat {}",
+                TimeUnit.NANOSECONDS.toMillis(delayNanos), head.getMessage().getChatId());
+        metricsRegistrar.registerOutboundRetry();
+        chat.messages.poll();
+        chat.messages.addFirst(head.nextAttempt());
+        chat.bucket.blockUntil(retryAt);
+        scheduleHead(chat, retryAt);
+    }
+
+    private static boolean isTooManyRequests(TelegramApiRequestException e) {
+        return e.getErrorCode() != null && e.getErrorCode() == TOO_MANY_REQUESTS;
+    }
+
+    private static CompletableFuture<Message> executeAsync(AbsSender sender, SendMessage message) {
+        try {
+            return sender.executeAsync(message);
+        } catch (TelegramApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private synchronized void forgetIdleChats() {
+        long now = System.nanoTime();
+        chats.values().removeIf(chat -> !chat.sending && chat.messages.isEmpty() && chat.bucket.isFull(now));
+    }
+
+    private static class ChatQueue {
+        private final Deque<QueuedMessage> messages = new ArrayDeque<>();
+        private final TokenBucket bucket;
+        // the first message is scheduled or sent and has no answer yet
+        private boolean sending;
+
+        ChatQueue(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    @Value
+    private static class QueuedMessage {
+        SendMessage message;
+        CompletableFuture<Message> result;
+        long queuedAt;
+        int attempt;
+
+        QueuedMessage nextAttempt() {
+            return new QueuedMessage(message, result, queuedAt, attempt + 1);
+        }
+    }
+}
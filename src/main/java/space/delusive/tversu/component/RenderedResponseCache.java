@@ -0,0 +1,103 @@
+package space.delusive.tversu.component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.TimetableChangedEvent;
+import space.delusive.tversu.dto.WeekSign;
+import space.delusive.tversu.exception.SoldisWhatTheFuckException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Texts of lessons that are the same for every user of a subgroup, so they are rendered once per day
+ * and then shared. Every text remembers the cells it was rendered of and is rendered again for other cells,
+ * so the caller gets the cells from the cell cache on every request and keeps its expiry working.
+ * Texts of a group are dropped when its timetable is changed, all texts are dropped
+ * when a new day begins, since the day and the week sign of most views depend on the current date
+ */
+@Component
+@RequiredArgsConstructor
+public class RenderedResponseCache {
+    private static final String CACHE_NAME = "rendered";
+
+    private final MetricsRegistrar metricsRegistrar;
+    private final Map<GroupKey, Map<Key, RenderedText>> groups = new ConcurrentHashMap<>();
+    private volatile LocalDate date;
+
+    /**
+     * @param cells    current cells of the group, texts rendered of other cells are not returned
+     * @param today    current date, texts rendered on another date are not returned
+     * @param renderer renders the text if there is no text for the key yet
+     */
+    public String get(Key key, List<Cell> cells, LocalDate today, Renderer renderer) throws SoldisWhatTheFuckException {
+        LocalDate currentDate = date;
+        if (currentDate == null || today.isAfter(currentDate)) {
+            startDay(today);
+        } else if (today.isBefore(currentDate)) {
+            // the update came right before midnight and is handled after it
+            return renderer.render();
+        }
+        // texts rendered while the group is evicted are put into the detached map and are lost
+        Map<Key, RenderedText> texts = groups.computeIfAbsent(new GroupKey(key.getFaculty(), key.getGroup()),
+                groupKey -> new ConcurrentHashMap<>());
+        RenderedText renderedText = texts.get(key);
+        if (renderedText != null && renderedText.getCells() == cells) {
+            metricsRegistrar.registerCacheHit(CACHE_NAME);
+            return renderedText.getText();
+        }
+        metricsRegistrar.registerCacheMiss(CACHE_NAME);
+        String text = renderer.render();
+        texts.put(key, new RenderedText(cells, text));
+        return text;
+    }
+
+    @EventListener
+    public void onTimetableChanged(TimetableChangedEvent event) {
+        if (groups.remove(new GroupKey(event.getFaculty(), event.getGroup())) != null) {
+            metricsRegistrar.registerCacheEviction(CACHE_NAME);
+        }
+    }
+
+    private synchronized void startDay(LocalDate today) {
+        if (date == null || today.isAfter(date)) {
+            groups.clear();
+            date = today;
+        }
+    }
+
+    public enum View {TODAY, TOMORROW, REMAINING_OF_WEEK, SPECIFIED_DAY}
+
+    @Value
+    public static class Key {
+        String faculty;
+        String group;
+        int subgroup;
+        WeekSign weekSign;
+        DayOfWeek dayOfWeek;
+        View view;
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        String render() throws SoldisWhatTheFuckException;
+    }
+
+    @Value
+    private static class GroupKey {
+        String faculty;
+        String group;
+    }
+
+    @Value
+    private static class RenderedText {
+        List<Cell> cells;
+        String text;
+    }
+}
@@ -0,0 +1,29 @@
+package space.delusive.tversu.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.dto.TimeContext;
+import space.delusive.tversu.service.FacultyService;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reads the clock once and pairs the moment with the week sign of the faculty
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeContextFactory {
+    private final Clock clock;
+    private final FacultyService facultyService;
+
+    public TimeContext capture(String faculty) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return TimeContext.of(now, facultyService.getWeekSign(faculty, now.toLocalDate()));
+    }
+
+    public LocalDate getCurrentDate() {
+        return LocalDate.now(clock);
+    }
+}
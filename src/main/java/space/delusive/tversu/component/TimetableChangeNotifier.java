@@ -0,0 +1,134 @@
+package space.delusive.tversu.component;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.BotState;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.TimetableChangedEvent;
+import space.delusive.tversu.dto.TimetableDiff;
+import space.delusive.tversu.dto.WeekSign;
+import space.delusive.tversu.entity.User;
+import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.repository.UserRepository;
+import space.delusive.tversu.util.BaseUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tells registered users of a group what was changed in their timetable.
+ * Every subgroup gets only changes of its own lessons and of lessons of the whole group.
+ * Users are looked up and notified on its own thread, so the thread that replaced the timetable is not held
+ * and does not see failures of notifying
+ */
+@Log4j2
+@Component
+public class TimetableChangeNotifier {
+    private static final Set<BotState> REGISTERED_STATES = EnumSet.of(BotState.MAIN_MENU,
+            BotState.CHOOSING_DAY_OF_WEEK, BotState.SETTINGS_MENU);
+    private static final String NO_NOTIFICATION = "";
+
+    private final UserRepository userRepository;
+    private final NotificationSender notificationSender;
+    private final DataManager messages;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timetable-change-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public TimetableChangeNotifier(UserRepository userRepository,
+                                   NotificationSender notificationSender,
+                                   @Qualifier("messages") DataManager messages) {
+        this.userRepository = userRepository;
+        this.notificationSender = notificationSender;
+        this.messages = messages;
+    }
+
+    @EventListener
+    public void onTimetableChanged(TimetableChangedEvent event) {
+        executor.execute(() -> {
+            try {
+                notifyUsers(event);
+            } catch (RuntimeException e) {
+                log.warn("Could not notify users of group \"{}\" of faculty \"{}\" about changed timetable",
+                        event.getGroup(), event.getFaculty(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void notifyUsers(TimetableChangedEvent event) {
+        TimetableDiff diff = TimetableDiff.of(event.getOldCells(), event.getNewCells());
+        if (diff.isEmpty()) {
+            return;
+        }
+        List<User> users = userRepository.findAllByFacultyAndGroupAndStateIn(event.getFaculty(), event.getGroup(), REGISTERED_STATES);
+        log.info("Timetable of group \"{}\" of faculty \"{}\" was changed, notifying {} users",
+                event.getGroup(), event.getFaculty(), users.size());
+        Map<Integer, String> notifications = new HashMap<>();
+        for (User user : users) {
+            String notification = notifications.computeIfAbsent(user.getSubgroup(),
+                    subgroup -> formatNotification(diff.ofSubgroup(subgroup)));
+            if (!notification.equals(NO_NOTIFICATION)) {
+                notificationSender.send(user.getId(), notification);
+            }
+        }
+    }
+
+    private String formatNotification(TimetableDiff diff) {
+        if (diff.isEmpty()) {
+            return NO_NOTIFICATION;
+        }
+        StringBuilder notification = new StringBuilder(messages.getString("timetable.changed")).append("\n");
+        diff.getAdded().forEach(cell -> messages.getTemplate("timetable.changed.added")
+                .formatTo(notification.append("\n"), "slot", formatSlot(cell), "subject", getSubject(cell)));
+        diff.getRemoved().forEach(cell -> messages.getTemplate("timetable.changed.removed")
+                .formatTo(notification.append("\n"), "slot", formatSlot(cell), "subject", getSubject(cell)));
+        diff.getMoved().forEach(move -> {
+            String from = formatSlot(move.getFrom());
+            String to = formatSlot(move.getTo());
+            String pattern = from.equals(to) ? "timetable.changed.updated" : "timetable.changed.moved";
+            messages.getTemplate(pattern).formatTo(notification.append("\n"),
+                    "from", from, "slot", to, "to", to, "subject", getSubject(move.getTo()));
+        });
+        return notification.toString();
+    }
+
+    private String getSubject(Cell cell) {
+        return Objects.toString(cell.getShortSubjectName(), Objects.toString(cell.getFullSubjectName(), ""));
+    }
+
+    /**
+     * The upstream may leave day or week of a cell empty, such a cell is shown without them
+     */
+    private String formatSlot(Cell cell) {
+        String week = cell.getWeekSign() == null || cell.getWeekSign() == WeekSign.ANY ?
+                messages.getString("timetable.changed.every.week") :
+                messages.getTemplate("timetable.changed.week")
+                        .format("week", BaseUtils.getLocalizedNameOfWeekSign(cell.getWeekSign(), messages));
+        String day = cell.getDayOfWeek() == null ?
+                messages.getString("timetable.changed.unknown.day") :
+                BaseUtils.getLocalizedNameOfDay(cell.getDayOfWeek(), messages);
+        return messages.getTemplate("timetable.changed.slot").format(
+                "day", day,
+                "position", Integer.toString(cell.getColumnPosition() + 1),
+                "start", cell.getStart(),
+                "week", week);
+    }
+}
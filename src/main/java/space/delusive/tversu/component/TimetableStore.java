@@ -0,0 +1,74 @@
+package space.delusive.tversu.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.GroupTimetable;
+import space.delusive.tversu.dto.TimetableEvictedEvent;
+import space.delusive.tversu.exception.FailureRequestException;
+import space.delusive.tversu.exception.SoldisWhatTheFuckException;
+import space.delusive.tversu.rest.FacultyRepository;
+import space.delusive.tversu.rest.impl.CachingCellRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Partitioned timetables of groups. Timetables of one faculty are kept in an immutable map that is replaced at once,
+ * so readers never see a partially loaded faculty.
+ * A timetable is rebuilt only when the cached cells of its group are replaced by another version,
+ * and is dropped together with the cached cells of its group
+ */
+@Component
+@RequiredArgsConstructor
+public class TimetableStore {
+    private final CachingCellRepository cellRepository;
+    private final FacultyRepository facultyRepository;
+    private final Map<String, Map<String, GroupTimetable>> faculties = new ConcurrentHashMap<>();
+
+    public GroupTimetable getTimetable(String faculty, String group) throws SoldisWhatTheFuckException {
+        List<Cell> cells = cellRepository.getCells(faculty, group);
+        GroupTimetable timetable = faculties.getOrDefault(faculty, Map.of()).get(group);
+        if (timetable != null && timetable.getCells() == cells) {
+            return timetable;
+        }
+        GroupTimetable newTimetable = GroupTimetable.of(cells);
+        faculties.compute(faculty, (key, groups) -> {
+            Map<String, GroupTimetable> newGroups = groups == null ? new HashMap<>() : new HashMap<>(groups);
+            newGroups.put(group, newTimetable);
+            return Map.copyOf(newGroups);
+        });
+        return newTimetable;
+    }
+
+    /**
+     * Loads cells of all groups of the faculty with one request, partitions them and replaces the faculty at once.
+     * Groups that are missing in the new table are dropped
+     */
+    public void ingestFaculty(String faculty) throws FailureRequestException {
+        Map<String, List<Cell>> table = facultyRepository.getTable(faculty);
+        Map<String, GroupTimetable> currentGroups = faculties.getOrDefault(faculty, Map.of());
+        Map<String, GroupTimetable> newGroups = new HashMap<>();
+        table.forEach((group, cells) -> {
+            GroupTimetable timetable = currentGroups.get(group);
+            newGroups.put(group, timetable != null && timetable.getCells() == cells ? timetable : GroupTimetable.of(cells));
+        });
+        cellRepository.putAll(faculty, table);
+        faculties.put(faculty, Map.copyOf(newGroups));
+    }
+
+    @EventListener
+    public void onTimetableEvicted(TimetableEvictedEvent event) {
+        faculties.computeIfPresent(event.getFaculty(), (key, groups) -> {
+            if (!groups.containsKey(event.getGroup())) {
+                return groups;
+            }
+            Map<String, GroupTimetable> newGroups = new HashMap<>(groups);
+            newGroups.remove(event.getGroup());
+            return newGroups.isEmpty() ? null : Map.copyOf(newGroups);
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package space.delusive.tversu.component;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.entity.GroupInfo;
+import space.delusive.tversu.exception.SoldisWhatTheFuckException;
+import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.repository.UserRepository;
+import space.delusive.tversu.rest.impl.CachingCellRepository;
+import space.delusive.tversu.service.FacultyService;
+
+import javax.annotation.PreDestroy;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads timetables and week signs of recently active groups before the morning peak,
+ * so the first request of the day does not wait for the upstream.
+ * In faculty table mode every faculty of active groups is loaded with one request instead of a request per group.
+ * Requests are made on its own threads, so the scheduler thread is not held for the whole warm up
+ */
+@Log4j2
+@Component
+public class TimetableWarmer {
+    private final UserRepository userRepository;
+    private final CachingCellRepository cellRepository;
+    private final FacultyService facultyService;
+    private final TimetableStore timetableStore;
+    private final Clock clock;
+    private final boolean facultyTableMode;
+    private final int activeDays;
+    private final int maxJitterMillis;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public TimetableWarmer(UserRepository userRepository,
+                           CachingCellRepository cellRepository,
+                           FacultyService facultyService,
+                           TimetableStore timetableStore,
+                           Clock clock,
+                           @Qualifier("config") DataManager config) {
+        this.userRepository = userRepository;
+        this.cellRepository = cellRepository;
+        this.facultyService = facultyService;
+        this.timetableStore = timetableStore;
+        this.clock = clock;
+        this.facultyTableMode = Boolean.parseBoolean(config.getString("warmer.faculty.table"));
+        this.activeDays = config.getInt("warmer.active.days");
+        this.maxJitterMillis = config.getInt("warmer.jitter.max.ms");
+        this.executor = Executors.newFixedThreadPool(config.getInt("warmer.concurrency"), runnable -> {
+            Thread thread = new Thread(runnable, "warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${warmer.cron}", zone = "Europe/Moscow")
+    public void warmUp() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous warm up is not finished yet, skipping this one");
+            return;
+        }
+        Date since = Date.valueOf(LocalDate.now(clock).minusDays(activeDays));
+        List<GroupInfo> groups = userRepository.getActiveGroups(since);
+        log.info("Warming up timetables of {} active groups", groups.size());
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        groups.stream()
+                .map(GroupInfo::getFaculty)
+                .distinct()
+                .forEach(faculty -> tasks.add(CompletableFuture.runAsync(() -> {
+                    warmUpWeekSign(faculty, failures);
+                    if (facultyTableMode) {
+                        warmUpFaculty(faculty, failures);
+                    }
+                }, executor)));
+        if (!facultyTableMode) {
+            groups.forEach(group -> tasks.add(CompletableFuture.runAsync(() -> warmUpGroup(group, failures), executor)));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, error) -> {
+                    running.set(false);
+                    log.info("Warm up finished, {} requests failed", failures.get());
+                });
+    }
+
+    private void warmUpWeekSign(String faculty, AtomicInteger failures) {
+        try {
+            sleepJitter();
+            facultyService.getCurrentWeekSign(faculty);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Could not warm up week sign of faculty \"{}\"", faculty, e);
+        }
+    }
+
+    private void warmUpFaculty(String faculty, AtomicInteger failures) {
+        try {
+            timetableStore.ingestFaculty(faculty);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Could not warm up timetables of faculty \"{}\"", faculty, e);
+        }
+    }
+
+    private void warmUpGroup(GroupInfo group, AtomicInteger failures) {
+        try {
+            sleepJitter();
+            cellRepository.refresh(group.getFaculty(), group.getGroup());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SoldisWhatTheFuckException | RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Could not warm up timetable of group \"{}\" of faculty \"{}\"", group.getGroup(), group.getFaculty(), e);
+        }
+    }
+
+    private void sleepJitter() throws InterruptedException {
+        Thread.sleep(ThreadLocalRandom.current().nextInt(maxJitterMillis + 1));
+    }
+}
@@ -0,0 +1,94 @@
+package space.delusive.tversu.component;
+
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.manager.DataManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Handles updates on a fixed number of lanes, every lane is one thread with its own queue.
+ * Updates of one user always go to the same lane, so they are handled in the order they came
+ * and the state of the user is never changed concurrently, while updates of other users go in parallel.
+ * If the lane is full, the polling thread waits for it instead of dropping the update
+ */
+@Log4j2
+@Component
+public class UpdateDispatcher {
+    private final MetricsRegistrar metricsRegistrar;
+    private final List<BlockingQueue<QueuedUpdate>> lanes = new ArrayList<>();
+    private final List<Thread> laneThreads = new ArrayList<>();
+
+    @Autowired
+    public UpdateDispatcher(MetricsRegistrar metricsRegistrar,
+                            @Qualifier("config") DataManager config) {
+        this.metricsRegistrar = metricsRegistrar;
+        int lanesCount = config.getInt("updates.lanes");
+        int queueSize = config.getInt("updates.lane.queue.size");
+        for (int i = 0; i < lanesCount; i++) {
+            lanes.add(new ArrayBlockingQueue<>(queueSize));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < lanes.size(); i++) {
+            BlockingQueue<QueuedUpdate> lane = lanes.get(i);
+            int laneNumber = i;
+            Thread laneThread = new Thread(() -> handleQueuedUpdates(laneNumber, lane), "updates-" + i);
+            laneThread.setDaemon(true);
+            laneThread.start();
+            laneThreads.add(laneThread);
+            metricsRegistrar.registerUpdateLane(i, lane::size);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        laneThreads.forEach(Thread::interrupt);
+    }
+
+    /**
+     * @param userId  id of the author of the update, updates with the same id are handled one by one
+     * @param handler handles the update on the lane of the user
+     */
+    public void dispatch(long userId, Runnable handler) {
+        BlockingQueue<QueuedUpdate> lane = lanes.get(Math.floorMod(Long.hashCode(userId), lanes.size()));
+        try {
+            lane.put(new QueuedUpdate(handler, System.nanoTime()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Update of user {} was not dispatched, the polling thread is interrupted", userId);
+        }
+    }
+
+    private void handleQueuedUpdates(int laneNumber, BlockingQueue<QueuedUpdate> lane) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                QueuedUpdate update = lane.take();
+                metricsRegistrar.registerUpdateWait(laneNumber, System.nanoTime() - update.getQueuedAt());
+                try {
+                    update.getHandler().run();
+                } catch (RuntimeException e) {
+                    log.error("Could not handle update on lane {}", laneNumber, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Value
+    private static class QueuedUpdate {
+        Runnable handler;
+        long queuedAt;
+    }
+}
@@ -6,6 +6,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import space.delusive.tversu.manager.DataManager;
 import space.delusive.tversu.manager.impl.PropertiesManager;
+import space.delusive.tversu.util.DateUtils;
+
+import java.time.Clock;
 
 @Configuration
 @ComponentScan("space.delusive.tversu")
@@ -21,4 +24,9 @@ public class ApplicationContextConfiguration {
     public DataManager getConfigManager() {
         return new PropertiesManager("/timingbot.properties");
     }
+
+    @Bean
+    public Clock getClock() {
+        return Clock.system(DateUtils.getZoneId());
+    }
 }
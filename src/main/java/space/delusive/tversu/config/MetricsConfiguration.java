@@ -19,10 +19,15 @@ import space.delusive.tversu.repository.UserRepository;
 @EnableScheduling
 @PropertySource("classpath:timingbot.properties")
 public class MetricsConfiguration {
+    /**
+     * Runs every scheduled job of the application, not only the metrics ones, so one slow job does not hold the others
+     */
     @Bean
-    @Conditional(MetricsEnabledCondition.class)
-    TaskScheduler taskScheduler() {
-        return new ThreadPoolTaskScheduler();
+    TaskScheduler taskScheduler(@Value("${scheduler.threads}") int threads) {
+        ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(threads);
+        taskScheduler.setThreadNamePrefix("scheduler-");
+        return taskScheduler;
     }
 
     @Bean
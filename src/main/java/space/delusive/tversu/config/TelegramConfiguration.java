@@ -10,8 +10,11 @@ public class TelegramConfiguration {
     @Bean("options")
     public DefaultBotOptions defaultBotOptions(@Value("${bot.proxy.host:}") String host,
                                                @Value("${bot.proxy.port:}") String port,
-                                               @Value("${bot.proxy.type:}") String proxyType) {
+                                               @Value("${bot.proxy.type:}") String proxyType,
+                                               @Value("${bot.max.threads:1}") int maxThreads) {
         DefaultBotOptions defaultBotOptions = new DefaultBotOptions();
+        // asynchronous API calls are made by this many threads
+        defaultBotOptions.setMaxThreads(maxThreads);
         if (!host.equals("")) {
             defaultBotOptions.setProxyHost(host);
             defaultBotOptions.setProxyPort(Integer.parseInt(port));
@@ -0,0 +1,16 @@
+package space.delusive.tversu.dto;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content of timetable and group catalog caches that survives restarts
+ */
+@Value
+public class CacheSnapshot {
+    long createdTime;
+    Map<String, FacultyCatalog> catalogs;
+    List<CachedCells> timetables;
+}
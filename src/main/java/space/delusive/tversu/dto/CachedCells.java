@@ -0,0 +1,13 @@
+package space.delusive.tversu.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class CachedCells {
+    String faculty;
+    String group;
+    List<Cell> cells;
+    long loadTime;
+}
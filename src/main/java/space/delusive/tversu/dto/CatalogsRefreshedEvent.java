@@ -0,0 +1,7 @@
+package space.delusive.tversu.dto;
+
+/**
+ * Is published when faculties and catalogs of their groups are fetched from the upstream again
+ */
+public class CatalogsRefreshedEvent {
+}
@@ -0,0 +1,63 @@
+package space.delusive.tversu.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable program -> course -> group -> subgroups count tree of one faculty.
+ * Is built once from the groups list so all registration steps can be answered from memory
+ */
+public class FacultyCatalog {
+    private final Map<String, Map<Integer, Map<String, Integer>>> programs;
+
+    private FacultyCatalog(Map<String, Map<Integer, Map<String, Integer>>> programs) {
+        this.programs = programs;
+    }
+
+    public static FacultyCatalog of(Collection<Group> groups) {
+        Map<String, Map<Integer, Map<String, Integer>>> programs = new LinkedHashMap<>();
+        for (Group group : groups) {
+            programs.computeIfAbsent(group.getLevel(), level -> new LinkedHashMap<>())
+                    .computeIfAbsent(group.getCourse(), course -> new LinkedHashMap<>())
+                    .merge(group.getName(), group.getSubgroups(), Math::max);
+        }
+        programs.replaceAll((program, courses) -> {
+            courses.replaceAll((course, courseGroups) -> Collections.unmodifiableMap(courseGroups));
+            return Collections.unmodifiableMap(courses);
+        });
+        return new FacultyCatalog(Collections.unmodifiableMap(programs));
+    }
+
+    public Set<String> getPrograms() {
+        return programs.keySet();
+    }
+
+    public Set<Integer> getCourses(String program) {
+        return programs.getOrDefault(program, Collections.emptyMap()).keySet();
+    }
+
+    public Set<String> getGroups(String program, int course) {
+        return getGroupsOfCourse(program, course).keySet();
+    }
+
+    public int getSubgroupsCount(String program, int course, String group) {
+        return getGroupsOfCourse(program, course).getOrDefault(group, 0);
+    }
+
+    public List<Group> toGroups() {
+        List<Group> groups = new ArrayList<>();
+        programs.forEach((program, courses) -> courses.forEach((course, courseGroups) -> courseGroups.forEach(
+                (group, subgroups) -> groups.add(new Group(program, group, subgroups, course)))));
+        return groups;
+    }
+
+    private Map<String, Integer> getGroupsOfCourse(String program, int course) {
+        return programs.getOrDefault(program, Collections.emptyMap())
+                .getOrDefault(course, Collections.emptyMap());
+    }
+}
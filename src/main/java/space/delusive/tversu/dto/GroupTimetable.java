@@ -0,0 +1,127 @@
+package space.delusive.tversu.dto;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable timetable of one group partitioned by week sign and subgroup.
+ * Every partition already contains the lessons of the whole group and of both weeks, so lessons of a user
+ * are taken without filtering. Every subgroup also has its {@link Timeline} of the fortnight.
+ * Cells of one subject held at the same time are merged into one {@link Lesson} while the timetable is built
+ */
+public class GroupTimetable {
+    private static final int WHOLE_GROUP = 0;
+    private static final WeekSign[] WEEK_SIGNS = {WeekSign.PLUS, WeekSign.MINUS};
+
+    private final List<Cell> cells;
+    private final Map<WeekSign, Map<Integer, List<Lesson>>> partitions;
+    private final Map<Integer, Timeline> timelines;
+
+    private GroupTimetable(List<Cell> cells,
+                           Map<WeekSign, Map<Integer, List<Lesson>>> partitions,
+                           Map<Integer, Timeline> timelines) {
+        this.cells = cells;
+        this.partitions = partitions;
+        this.timelines = timelines;
+    }
+
+    /**
+     * @param cells unmodifiable cells of the group, order of the cells is kept in every partition
+     */
+    public static GroupTimetable of(List<Cell> cells) {
+        Set<Integer> subgroups = new TreeSet<>();
+        subgroups.add(WHOLE_GROUP);
+        cells.forEach(cell -> subgroups.add((int) cell.getSubgroup()));
+        // a cell of every week that is not merged with others is the same lesson in both weeks
+        Map<Cell, Lesson> singleCellLessons = new IdentityHashMap<>();
+        Map<WeekSign, Map<Integer, List<Lesson>>> partitions = new EnumMap<>(WeekSign.class);
+        for (WeekSign weekSign : WEEK_SIGNS) {
+            List<Lesson> lessonsOfWeek = mergeLessonsOfWeek(cells, weekSign, singleCellLessons);
+            Map<Integer, List<Lesson>> partitionsOfWeek = new HashMap<>();
+            for (int subgroup : subgroups) {
+                List<Lesson> partition = new ArrayList<>();
+                for (Lesson lesson : lessonsOfWeek) {
+                    if (lesson.getSubgroup() == subgroup || lesson.getSubgroup() == WHOLE_GROUP) {
+                        partition.add(lesson);
+                    }
+                }
+                partitionsOfWeek.put(subgroup, List.copyOf(partition));
+            }
+            partitions.put(weekSign, Collections.unmodifiableMap(partitionsOfWeek));
+        }
+        Map<Integer, Timeline> timelines = new HashMap<>();
+        for (int subgroup : subgroups) {
+            timelines.put(subgroup, Timeline.of(partitions.get(WeekSign.PLUS).get(subgroup),
+                    partitions.get(WeekSign.MINUS).get(subgroup)));
+        }
+        return new GroupTimetable(cells, Collections.unmodifiableMap(partitions), Collections.unmodifiableMap(timelines));
+    }
+
+    /**
+     * @return all cells the timetable was built of
+     */
+    public List<Cell> getCells() {
+        return cells;
+    }
+
+    /**
+     * @param weekSign sign of the week, either {@link WeekSign#PLUS} or {@link WeekSign#MINUS}
+     * @return lessons of the subgroup and of the whole group in the week with specified sign
+     */
+    public List<Lesson> getLessons(int subgroup, WeekSign weekSign) {
+        Map<Integer, List<Lesson>> partitionsOfWeek = partitions.get(weekSign);
+        List<Lesson> lessons = partitionsOfWeek.get(subgroup);
+        return lessons != null ? lessons : partitionsOfWeek.get(WHOLE_GROUP);
+    }
+
+    /**
+     * @return timeline of lessons of the subgroup and of the whole group
+     */
+    public Timeline getTimeline(int subgroup) {
+        Timeline timeline = timelines.get(subgroup);
+        return timeline != null ? timeline : timelines.get(WHOLE_GROUP);
+    }
+
+    /**
+     * Cells of one week are similar if they have the same day, start, subgroup and subject,
+     * so similar cells are found by one pass over the cells.
+     * Cells without day or week sign can not be shown on any day, so they are skipped
+     */
+    private static List<Lesson> mergeLessonsOfWeek(List<Cell> cells, WeekSign weekSign, Map<Cell, Lesson> singleCellLessons) {
+        Map<MergeKey, List<Cell>> similarCells = new LinkedHashMap<>();
+        for (Cell cell : cells) {
+            if (cell.getDayOfWeek() != null && (cell.getWeekSign() == weekSign || cell.getWeekSign() == WeekSign.ANY)) {
+                similarCells.computeIfAbsent(MergeKey.of(cell), key -> new ArrayList<>(1)).add(cell);
+            }
+        }
+        List<Lesson> lessons = new ArrayList<>(similarCells.size());
+        for (List<Cell> cellsOfLesson : similarCells.values()) {
+            lessons.add(cellsOfLesson.size() == 1 ?
+                    singleCellLessons.computeIfAbsent(cellsOfLesson.get(0), cell -> Lesson.of(List.of(cell))) :
+                    Lesson.of(cellsOfLesson));
+        }
+        return lessons;
+    }
+
+    @Value
+    private static class MergeKey {
+        DayOfWeek dayOfWeek;
+        String start;
+        byte subgroup;
+        String fullSubjectName;
+
+        static MergeKey of(Cell cell) {
+            return new MergeKey(cell.getDayOfWeek(), cell.getStart(), cell.getSubgroup(), cell.getFullSubjectName());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package space.delusive.tversu.dto;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Value;
+import space.delusive.tversu.util.BaseUtils;
+import space.delusive.tversu.util.DateUtils;
+import space.delusive.tversu.util.EmojiUtils;
+import space.delusive.tversu.util.MessageTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Immutable lesson of a group. Cells of one subject that are held at the same time by several teachers
+ * or in several auditories are merged into one lesson with lists of teachers and auditories.
+ * Start and end are kept as minutes of the day and are formatted only when the lesson is shown.
+ * Day and week sign are kept as ordinals, so a lesson holds only primitives, strings and unmodifiable lists
+ * and one instance is shared by caches and concurrent requests without copying.
+ * Texts of teachers, location and position are built once with the lesson, so rendering only appends them
+ */
+@Value
+public class Lesson {
+    public static final short UNKNOWN_TIME = -1;
+
+    private static final DayOfWeek[] DAYS_OF_WEEK = DayOfWeek.values();
+    private static final WeekSign[] WEEK_SIGNS = WeekSign.values();
+
+    private static final String NEW_LINE = "\n";
+    private static final String ADDRESSES_SEPARATOR = ", ";
+    private static final String BUILDING_AND_AUDITORY_SEPARATOR = "|";
+    private static final String UNKNOWN_TIME_TEXT = "--:--";
+
+    private static final MessageTemplate SUBJECT_PATTERN = MessageTemplate.compile("\uD83D\uDCD6 Предмет: %subject%");
+    private static final String SUBJECT_PLACEHOLDER = "subject";
+    private static final MessageTemplate LESSON_TIME_PATTERN = MessageTemplate.compile("⏳ Время проведения: с %start% до %end%");
+    private static final String LESSON_TIME_START_PLACEHOLDER = "start";
+    private static final String LESSON_TIME_END_PLACEHOLDER = "end";
+    private static final MessageTemplate TEACHER_PATTERN =
+            MessageTemplate.compile("\uD83D\uDC68\u200D\uD83C\uDFEB Преподаватель: %teacher%");
+    private static final String TEACHER_PLACEHOLDER = "teacher";
+    private static final MessageTemplate TEACHER_TITLE_PATTERN = MessageTemplate.compile(" (%teacherTitle%)");
+    private static final String TEACHER_TITLE_PLACEHOLDER = "teacherTitle";
+    private static final String TEACHER_IS_NOT_SPECIFIED = "не указан";
+    private static final MessageTemplate LOCATION_PATTERN = MessageTemplate.compile("\uD83C\uDFEB Локация: %location%");
+    private static final String LOCATION_PLACEHOLDER = "location";
+    private static final String LOCATION_IS_NOT_SPECIFIED = "не указана";
+    private static final String LOCATION_AUDIENCE = "аудитория";
+    private static final String LOCATION_BUILDING = "корпус";
+    private static final String LOCATION_AUDIENCE_SHORT = "ауд.";
+    private static final String LOCATION_BUILDING_SHORT = "корп.";
+    private static final MessageTemplate CROSSPAIR_PATTERN = MessageTemplate.compile("\uD83D\uDCA0 Занятие проходит %crossPair%");
+    private static final String CROSSPAIR_PLACEHOLDER = "crossPair";
+    private static final String CROSSPAIR_ALONE = "*только у вашей группы*";
+    private static final String CROSSPAIR_TOGETHER = "*совместно с другой группой*";
+
+    byte weekSign;
+    String fullSubjectName;
+    String shortSubjectName;
+    List<Teacher> teachers;
+    byte dayOfWeek;
+    byte columnPosition;
+    short startMinute;
+    short endMinute;
+    List<String> auditoryAddresses;
+    byte subgroup;
+    boolean crossPair;
+
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    String positionEmoji;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    String teachersWithTitles;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    String teacherNames;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    String shortTeacherNames;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    String location;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    String shortLocation;
+
+    public Lesson(WeekSign weekSign, String fullSubjectName, String shortSubjectName, List<Teacher> teachers,
+                  DayOfWeek dayOfWeek, byte columnPosition, short startMinute, short endMinute,
+                  List<String> auditoryAddresses, byte subgroup, boolean crossPair) {
+        this.weekSign = (byte) weekSign.ordinal();
+        this.fullSubjectName = fullSubjectName;
+        this.shortSubjectName = shortSubjectName;
+        this.teachers = List.copyOf(teachers);
+        this.dayOfWeek = (byte) dayOfWeek.ordinal();
+        this.columnPosition = columnPosition;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        this.auditoryAddresses = List.copyOf(auditoryAddresses);
+        this.subgroup = subgroup;
+        this.crossPair = crossPair;
+        // a broken position should not fail the whole timetable while it is built
+        this.positionEmoji = columnPosition >= 0 && columnPosition < 9 ?
+                EmojiUtils.getEmojiOfDigit(columnPosition + 1) : Integer.toString(columnPosition + 1);
+        this.teachersWithTitles = formatTeachers();
+        this.teacherNames = formatTeacherNames(false);
+        this.shortTeacherNames = formatTeacherNames(true);
+        this.location = formatAuditoryInfo(LOCATION_AUDIENCE, LOCATION_BUILDING);
+        this.shortLocation = formatAuditoryInfo(LOCATION_AUDIENCE_SHORT, LOCATION_BUILDING_SHORT);
+    }
+
+    /**
+     * @param cells cells of one subject held at the same time, the first one gives everything but teachers and auditories
+     */
+    public static Lesson of(List<Cell> cells) {
+        Cell first = cells.get(0);
+        Map<String, Teacher> teachers = new LinkedHashMap<>();
+        Set<String> addresses = new LinkedHashSet<>();
+        for (Cell cell : cells) {
+            if (cell.getTeacherName() != null && !cell.getTeacherName().isBlank()) {
+                teachers.putIfAbsent(cell.getTeacherName(), new Teacher(cell.getTeacherName(), cell.getTeacherTitle()));
+            }
+            if (cell.getAuditoryAddress() != null && !cell.getAuditoryAddress().isBlank()) {
+                addresses.addAll(List.of(cell.getAuditoryAddress().split(ADDRESSES_SEPARATOR)));
+            }
+        }
+        return new Lesson(first.getWeekSign(), first.getFullSubjectName(), first.getShortSubjectName(),
+                List.copyOf(teachers.values()), first.getDayOfWeek(), first.getColumnPosition(), parseTime(first.getStart()),
+                parseTime(first.getEnd()), List.copyOf(addresses), first.getSubgroup(), first.isCrossPair());
+    }
+
+    public WeekSign getWeekSign() {
+        return WEEK_SIGNS[weekSign];
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return DAYS_OF_WEEK[dayOfWeek];
+    }
+
+    public String toLongString() {
+        StringBuilder response = new StringBuilder(256);
+        SUBJECT_PATTERN.formatTo(response, SUBJECT_PLACEHOLDER, fullSubjectName).append(NEW_LINE);
+        LESSON_TIME_PATTERN.formatTo(response, LESSON_TIME_START_PLACEHOLDER, formatTime(startMinute),
+                LESSON_TIME_END_PLACEHOLDER, formatTime(endMinute)).append(NEW_LINE);
+        TEACHER_PATTERN.formatTo(response, TEACHER_PLACEHOLDER, teachersWithTitles).append(NEW_LINE);
+        LOCATION_PATTERN.formatTo(response, LOCATION_PLACEHOLDER, location).append(NEW_LINE).append(NEW_LINE);
+        CROSSPAIR_PATTERN.formatTo(response, CROSSPAIR_PLACEHOLDER, crossPair ? CROSSPAIR_TOGETHER : CROSSPAIR_ALONE);
+        return response.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder response = new StringBuilder(192);
+        response.append(positionEmoji).append(" *").append(fullSubjectName).append("*\n")
+                .append("⏳ С ").append(formatTime(startMinute)).append(" до ").append(formatTime(endMinute)).append('\n')
+                .append("\uD83D\uDC68\u200D\uD83C\uDFEB ").append(teacherNames).append('\n')
+                .append("\uD83D\uDCCD ").append(location).append('\n')
+                .append("\uD83E\uDD32 ").append(crossPair ? "С другой группой" : "Только у вашей группы");
+        return response.toString();
+    }
+
+    public String toShortString() {
+        StringBuilder response = new StringBuilder(128);
+        response.append(positionEmoji).append(" *").append(shortSubjectName).append("* \n")
+                .append("\uD83D\uDC68\u200D\uD83C\uDFEB ").append(shortTeacherNames).append("\n")
+                .append("\uD83C\uDFEB ").append(shortLocation);
+        return response.toString();
+    }
+
+    private static short parseTime(String time) {
+        return time == null ? UNKNOWN_TIME : DateUtils.parseMinuteOfDay(time);
+    }
+
+    private static String formatTime(short minuteOfDay) {
+        return minuteOfDay == UNKNOWN_TIME ? UNKNOWN_TIME_TEXT : DateUtils.formatMinuteOfDay(minuteOfDay);
+    }
+
+    private String formatTeachers() {
+        if (teachers.isEmpty()) {
+            return TEACHER_IS_NOT_SPECIFIED;
+        }
+        StringJoiner formattedTeachers = new StringJoiner(ADDRESSES_SEPARATOR);
+        for (Teacher teacher : teachers) {
+            String title = teacher.getTitle() == null || teacher.getTitle().isBlank() ? "" :
+                    TEACHER_TITLE_PATTERN.format(TEACHER_TITLE_PLACEHOLDER, teacher.getTitle());
+            formattedTeachers.add(teacher.getName() + title);
+        }
+        return formattedTeachers.toString();
+    }
+
+    private String formatTeacherNames(boolean shortified) {
+        if (teachers.isEmpty()) {
+            return TEACHER_IS_NOT_SPECIFIED;
+        }
+        StringJoiner names = new StringJoiner(ADDRESSES_SEPARATOR);
+        teachers.forEach(teacher -> names.add(shortified ? teacher.getShortName() : teacher.getName()));
+        return names.toString();
+    }
+
+    private String formatAuditoryInfo(String audienceLabel, String buildingLabel) {
+        if (auditoryAddresses.isEmpty()) {
+            return LOCATION_IS_NOT_SPECIFIED;
+        }
+        List<String> messages = new ArrayList<>(auditoryAddresses.size());
+        for (String address : auditoryAddresses) {
+            int separatorIndex = address.indexOf(BUILDING_AND_AUDITORY_SEPARATOR);
+            if (separatorIndex == -1) {
+                messages.add(address);
+            } else {
+                messages.add(audienceLabel + " " + address.substring(separatorIndex + 1) + ", "
+                        + buildingLabel + " " + address.substring(0, separatorIndex));
+            }
+        }
+        return BaseUtils.capitalizeString(String.join("; ", messages));
+    }
+
+    @Value
+    public static class Teacher {
+        String name;
+        String title;
+
+        /**
+         * @return surname with initials if the name is full, e.g. "Иванов И. И.", otherwise the name itself
+         */
+        public String getShortName() {
+            String[] words = name.trim().split(" +");
+            if (words.length != 3) {
+                return name;
+            }
+            return words[0] + " " + words[1].charAt(0) + ". " + words[2].charAt(0) + ".";
+        }
+    }
+}
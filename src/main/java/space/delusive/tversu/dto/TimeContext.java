@@ -0,0 +1,44 @@
+package space.delusive.tversu.dto;
+
+import lombok.Value;
+import space.delusive.tversu.util.DateUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Moment a request of a user is handled at. It is captured once per update,
+ * so every answer to the update is built for the same day, minute and week
+ */
+@Value
+public class TimeContext {
+    private static final int END_OF_BEGINNING_OF_DAY = 6 * 60;
+
+    LocalDate date;
+    DayOfWeek dayOfWeek;
+    short minuteOfDay;
+    int isoWeek;
+    WeekSign weekSign;
+
+    /**
+     * @param now      local time of the university
+     * @param weekSign sign of the week the time belongs to
+     */
+    public static TimeContext of(LocalDateTime now, WeekSign weekSign) {
+        LocalDate date = now.toLocalDate();
+        return new TimeContext(date, DayOfWeek.valueOf(date.getDayOfWeek().name()),
+                DateUtils.getMinuteOfDay(now), DateUtils.getIsoWeek(date), weekSign);
+    }
+
+    public WeekSign getNextWeekSign() {
+        return weekSign == WeekSign.MINUS ? WeekSign.PLUS : WeekSign.MINUS;
+    }
+
+    public int getMinuteOfFortnight() {
+        return Timeline.getMinuteOfFortnight(weekSign, dayOfWeek, minuteOfDay);
+    }
+
+    public boolean isBeginningOfDay() {
+        return minuteOfDay < END_OF_BEGINNING_OF_DAY;
+    }
+}
@@ -0,0 +1,156 @@
+package space.delusive.tversu.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable lessons of one subgroup over a fortnight, the plus week followed by the minus week,
+ * sorted by minute of the fortnight when they start. Lessons of every week are put into both weeks.
+ * Lookups are binary searches over the start minutes
+ */
+public class Timeline {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    public static final int MINUTES_PER_FORTNIGHT = 2 * MINUTES_PER_WEEK;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final List<Lesson> lessons;
+
+    private Timeline(int[] starts, int[] ends, List<Lesson> lessons) {
+        this.starts = starts;
+        this.ends = ends;
+        this.lessons = lessons;
+    }
+
+    /**
+     * Lessons without start or end time can not be put into the timeline, so they are skipped
+     *
+     * @param plusWeekLessons  lessons of the plus week including lessons of every week
+     * @param minusWeekLessons lessons of the minus week including lessons of every week
+     */
+    public static Timeline of(List<Lesson> plusWeekLessons, List<Lesson> minusWeekLessons) {
+        List<TimedLesson> timedLessons = new ArrayList<>(plusWeekLessons.size() + minusWeekLessons.size());
+        addTimedLessons(timedLessons, WeekSign.PLUS, plusWeekLessons);
+        addTimedLessons(timedLessons, WeekSign.MINUS, minusWeekLessons);
+        timedLessons.sort(Comparator.comparingInt(timedLesson -> timedLesson.start));
+        int[] starts = new int[timedLessons.size()];
+        int[] ends = new int[timedLessons.size()];
+        Lesson[] lessons = new Lesson[timedLessons.size()];
+        for (int i = 0; i < timedLessons.size(); i++) {
+            starts[i] = timedLessons.get(i).start;
+            ends[i] = timedLessons.get(i).end;
+            lessons[i] = timedLessons.get(i).lesson;
+        }
+        return new Timeline(starts, ends, Collections.unmodifiableList(Arrays.asList(lessons)));
+    }
+
+    /**
+     * @param weekSign either {@link WeekSign#PLUS} or {@link WeekSign#MINUS}
+     */
+    public static int getMinuteOfFortnight(WeekSign weekSign, DayOfWeek dayOfWeek, int minuteOfDay) {
+        return (weekSign == WeekSign.MINUS ? MINUTES_PER_WEEK : 0) + dayOfWeek.ordinal() * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    /**
+     * @return lessons that go at the moment, several ones if they are held in the same slot
+     */
+    public List<Lesson> getCurrent(int minuteOfFortnight) {
+        int last = upperBound(minuteOfFortnight) - 1;
+        if (last < 0) {
+            return List.of();
+        }
+        int first = lowerBound(starts[last]);
+        List<Lesson> current = new ArrayList<>(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            if (ends[i] >= minuteOfFortnight) {
+                current.add(lessons.get(i));
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return lessons of the nearest slot that starts after the moment, looking through the next days and weeks
+     */
+    public List<Lesson> getNext(int minuteOfFortnight) {
+        if (starts.length == 0) {
+            return List.of();
+        }
+        int first = upperBound(minuteOfFortnight);
+        if (first == starts.length) {
+            first = 0;
+        }
+        return lessons.subList(first, upperBound(starts[first]));
+    }
+
+    /**
+     * @return whether lessons returned by {@link #getNext(int)} start later on the same day,
+     * and not on the same day of one of the next weeks
+     */
+    public boolean isNextOnSameDay(int minuteOfFortnight) {
+        if (starts.length == 0) {
+            return false;
+        }
+        int next = upperBound(minuteOfFortnight);
+        if (next == starts.length) {
+            // the next lesson is in the next fortnight
+            return false;
+        }
+        return starts[next] / MINUTES_PER_DAY == minuteOfFortnight / MINUTES_PER_DAY;
+    }
+
+    /**
+     * @return lessons that start in [from, to) minutes of the fortnight
+     */
+    public List<Lesson> getBetween(int fromMinuteOfFortnight, int toMinuteOfFortnight) {
+        return lessons.subList(lowerBound(fromMinuteOfFortnight), lowerBound(toMinuteOfFortnight));
+    }
+
+    private static void addTimedLessons(List<TimedLesson> timedLessons, WeekSign weekSign, List<Lesson> lessons) {
+        for (Lesson lesson : lessons) {
+            if (lesson.getStartMinute() != Lesson.UNKNOWN_TIME && lesson.getEndMinute() != Lesson.UNKNOWN_TIME) {
+                timedLessons.add(new TimedLesson(weekSign, lesson));
+            }
+        }
+    }
+
+    /**
+     * @return index of the first lesson that starts at the minute or later
+     */
+    private int lowerBound(int minuteOfFortnight) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < minuteOfFortnight) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first lesson that starts after the minute
+     */
+    private int upperBound(int minuteOfFortnight) {
+        return lowerBound(minuteOfFortnight + 1);
+    }
+
+    private static class TimedLesson {
+        private final int start;
+        private final int end;
+        private final Lesson lesson;
+
+        TimedLesson(WeekSign weekSign, Lesson lesson) {
+            this.start = getMinuteOfFortnight(weekSign, lesson.getDayOfWeek(), lesson.getStartMinute());
+            this.end = getMinuteOfFortnight(weekSign, lesson.getDayOfWeek(), lesson.getEndMinute());
+            this.lesson = lesson;
+        }
+    }
+}
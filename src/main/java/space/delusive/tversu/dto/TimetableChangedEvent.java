@@ -0,0 +1,16 @@
+package space.delusive.tversu.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Is published when cached cells of a group are replaced by a new version
+ */
+@Value
+public class TimetableChangedEvent {
+    String faculty;
+    String group;
+    List<Cell> oldCells;
+    List<Cell> newCells;
+}
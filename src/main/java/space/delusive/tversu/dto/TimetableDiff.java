@@ -0,0 +1,151 @@
+package space.delusive.tversu.dto;
+
+import lombok.Value;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lessons that were added, removed or moved to another slot between two versions of a group timetable.
+ * A slot is a day, column position, week sign and subgroup. Both versions are walked once, so the diff is O(n)
+ */
+@Value
+public class TimetableDiff {
+    private static final int WHOLE_GROUP = 0;
+
+    List<Cell> added;
+    List<Cell> removed;
+    List<Move> moved;
+
+    public static TimetableDiff of(List<Cell> oldCells, List<Cell> newCells) {
+        Map<Slot, Set<Content>> oldSlots = groupBySlot(oldCells);
+        Map<Slot, Set<Content>> newSlots = groupBySlot(newCells);
+        List<Cell> removed = new ArrayList<>();
+        for (Cell cell : oldCells) {
+            if (!newSlots.getOrDefault(Slot.of(cell), Set.of()).contains(Content.of(cell))) {
+                removed.add(cell);
+            }
+        }
+        List<Cell> added = new ArrayList<>();
+        for (Cell cell : newCells) {
+            if (!oldSlots.getOrDefault(Slot.of(cell), Set.of()).contains(Content.of(cell))) {
+                added.add(cell);
+            }
+        }
+        return withMovesPaired(added, removed);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && moved.isEmpty();
+    }
+
+    /**
+     * @return changes that are seen by the subgroup, i.e. changes of the subgroup and of the whole group
+     */
+    public TimetableDiff ofSubgroup(int subgroup) {
+        List<Move> movesOfSubgroup = new ArrayList<>();
+        for (Move move : moved) {
+            if (isSeenBy(move.getFrom(), subgroup) || isSeenBy(move.getTo(), subgroup)) {
+                movesOfSubgroup.add(move);
+            }
+        }
+        return new TimetableDiff(filterSeenBy(added, subgroup), filterSeenBy(removed, subgroup), List.copyOf(movesOfSubgroup));
+    }
+
+    /**
+     * Removed and added lessons of the same subject and subgroup are paired into moves
+     */
+    private static TimetableDiff withMovesPaired(List<Cell> added, List<Cell> removed) {
+        Map<List<Object>, Deque<Cell>> removedBySubject = new HashMap<>();
+        for (Cell cell : removed) {
+            removedBySubject.computeIfAbsent(subjectOf(cell), subject -> new ArrayDeque<>()).add(cell);
+        }
+        Set<Cell> movedFrom = new HashSet<>();
+        List<Cell> addedOnly = new ArrayList<>();
+        List<Move> moved = new ArrayList<>();
+        for (Cell cell : added) {
+            Deque<Cell> candidates = removedBySubject.get(subjectOf(cell));
+            Cell from = candidates == null ? null : candidates.poll();
+            if (from == null) {
+                addedOnly.add(cell);
+            } else {
+                movedFrom.add(from);
+                moved.add(new Move(from, cell));
+            }
+        }
+        List<Cell> removedOnly = new ArrayList<>();
+        for (Cell cell : removed) {
+            if (!movedFrom.contains(cell)) {
+                removedOnly.add(cell);
+            }
+        }
+        return new TimetableDiff(List.copyOf(addedOnly), List.copyOf(removedOnly), List.copyOf(moved));
+    }
+
+    private static Map<Slot, Set<Content>> groupBySlot(List<Cell> cells) {
+        Map<Slot, Set<Content>> slots = new LinkedHashMap<>();
+        for (Cell cell : cells) {
+            slots.computeIfAbsent(Slot.of(cell), slot -> new HashSet<>()).add(Content.of(cell));
+        }
+        return slots;
+    }
+
+    private static List<Object> subjectOf(Cell cell) {
+        return Arrays.asList(cell.getFullSubjectName(), cell.getSubgroup());
+    }
+
+    private static List<Cell> filterSeenBy(List<Cell> cells, int subgroup) {
+        List<Cell> cellsOfSubgroup = new ArrayList<>();
+        for (Cell cell : cells) {
+            if (isSeenBy(cell, subgroup)) {
+                cellsOfSubgroup.add(cell);
+            }
+        }
+        return List.copyOf(cellsOfSubgroup);
+    }
+
+    private static boolean isSeenBy(Cell cell, int subgroup) {
+        return cell.getSubgroup() == subgroup || cell.getSubgroup() == WHOLE_GROUP;
+    }
+
+    @Value
+    public static class Move {
+        Cell from;
+        Cell to;
+    }
+
+    @Value
+    private static class Slot {
+        DayOfWeek dayOfWeek;
+        byte columnPosition;
+        WeekSign weekSign;
+        byte subgroup;
+
+        static Slot of(Cell cell) {
+            return new Slot(cell.getDayOfWeek(), cell.getColumnPosition(), cell.getWeekSign(), cell.getSubgroup());
+        }
+    }
+
+    @Value
+    private static class Content {
+        String fullSubjectName;
+        String teacherName;
+        String auditoryAddress;
+        String start;
+        String end;
+        boolean crossPair;
+
+        static Content of(Cell cell) {
+            return new Content(cell.getFullSubjectName(), cell.getTeacherName(), cell.getAuditoryAddress(),
+                    cell.getStart(), cell.getEnd(), cell.isCrossPair());
+        }
+    }
+}
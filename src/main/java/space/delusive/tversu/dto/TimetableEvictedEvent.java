@@ -0,0 +1,12 @@
+package space.delusive.tversu.dto;
+
+import lombok.Value;
+
+/**
+ * Is published when cached cells of a group are dropped, because the cache is full or the group disappeared
+ */
+@Value
+public class TimetableEvictedEvent {
+    String faculty;
+    String group;
+}
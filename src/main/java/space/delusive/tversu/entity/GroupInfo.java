@@ -0,0 +1,9 @@
+package space.delusive.tversu.entity;
+
+import lombok.Value;
+
+@Value
+public class GroupInfo {
+    String faculty;
+    String group;
+}
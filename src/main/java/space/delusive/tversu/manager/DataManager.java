@@ -1,7 +1,11 @@
 package space.delusive.tversu.manager;
 
+import space.delusive.tversu.util.MessageTemplate;
+
 public interface DataManager {
     String getString(String paramName);
 
     int getInt(String paramName);
+
+    MessageTemplate getTemplate(String paramName);
 }
@@ -3,10 +3,13 @@ package space.delusive.tversu.manager.impl;
 import lombok.extern.log4j.Log4j2;
 import space.delusive.tversu.exception.PropertiesException;
 import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.util.MessageTemplate;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -18,17 +21,29 @@ import java.util.Properties;
 
 @Log4j2
 public class PropertiesManager implements DataManager {
-    private final Properties properties = new Properties();
     private final InputStream inputStream;
+    private final Map<String, String> values;
+    private final Map<String, MessageTemplate> templates;
 
     public PropertiesManager(String fileName) {
         inputStream = getClass().getResourceAsStream(fileName);
         if (inputStream == null) throw new PropertiesException("File \"" + fileName + "\" not found!");
+        Properties properties = new Properties();
         try {
             properties.load(inputStream);
         } catch (IOException ex) {
             log.error(ex);
         }
+        // files are read as ISO-8859-1, so every value is decoded to UTF-8 once here instead of on every call
+        Map<String, String> decodedValues = new HashMap<>();
+        Map<String, MessageTemplate> compiledTemplates = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = new String(properties.getProperty(key).getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+            decodedValues.put(key, value);
+            compiledTemplates.put(key, MessageTemplate.compile(value));
+        }
+        values = Map.copyOf(decodedValues);
+        templates = Map.copyOf(compiledTemplates);
     }
 
     /**
@@ -51,7 +66,19 @@ public class PropertiesManager implements DataManager {
      */
     public String getString(String key) throws PropertiesException {
         baseCheck(key);
-        return new String(properties.getProperty(key).getBytes(StandardCharsets.ISO_8859_1));
+        return values.get(key);
+    }
+
+    /**
+     * Получение шаблона, разобранного при загрузке property-файла
+     *
+     * @param key Ключ
+     * @return Шаблон значения
+     * @throws PropertiesException Либо если property-файл не загружен, либо если передан null
+     */
+    public MessageTemplate getTemplate(String key) throws PropertiesException {
+        baseCheck(key);
+        return templates.get(key);
     }
 
     private void baseCheck(String... keys) throws PropertiesException {
@@ -2,10 +2,15 @@ package space.delusive.tversu.repository;
 
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import space.delusive.tversu.BotState;
 import space.delusive.tversu.entity.CourseInfo;
+import space.delusive.tversu.entity.GroupInfo;
 import space.delusive.tversu.entity.User;
 
+import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +22,13 @@ public interface UserRepository extends CrudRepository<User, Long> {
                 "and course IS NOT NULL " +
             "GROUP BY u.faculty, u.program, u.course")
     List<CourseInfo> getCoursesInfo();
+
+    @Query("SELECT DISTINCT new space.delusive.tversu.entity.GroupInfo(u.faculty, u.group) " +
+            "FROM User as u " +
+            "WHERE u.faculty IS NOT NULL " +
+                "and u.group IS NOT NULL " +
+                "and u.lastMessageDate >= :since")
+    List<GroupInfo> getActiveGroups(@Param("since") Date since);
+
+    List<User> findAllByFacultyAndGroupAndStateIn(String faculty, String group, Collection<BotState> states);
 }
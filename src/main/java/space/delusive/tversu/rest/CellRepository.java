@@ -7,4 +7,11 @@ import java.util.List;
 
 public interface CellRepository {
     List<Cell> getCells(String facultyId, String groupId) throws SoldisWhatTheFuckException;
+
+    /**
+     * @return whether cells of the group are the last successfully fetched ones because the upstream can not be reached now
+     */
+    default boolean isOutdated(String facultyId, String groupId) {
+        return false;
+    }
 }
@@ -1,20 +1,22 @@
 package space.delusive.tversu.rest;
 
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.FacultyCatalog;
 import space.delusive.tversu.dto.WeekSign;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 public interface FacultyRepository {
     List<String> getFaculties();
 
-    Set<String> getPrograms(String faculty);
+    FacultyCatalog getCatalog(String faculty);
 
-    Set<Integer> getCourses(String faculty, String program);
+    WeekSign getWeekSign(String faculty, LocalDate day);
 
-    Set<String> getGroups(String faculty, String program, int course);
-
-    int getSubgroupsCount(String faculty, String program, int course, String group);
-
-    WeekSign getCurrentWeekSign(String faculty);
+    /**
+     * @return cells of every group of the faculty by name of the group, fetched with one request
+     */
+    Map<String, List<Cell>> getTable(String faculty);
 }
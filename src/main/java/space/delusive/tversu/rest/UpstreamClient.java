@@ -0,0 +1,46 @@
+package space.delusive.tversu.rest;
+
+import kong.unirest.GetRequest;
+import kong.unirest.HttpResponse;
+import kong.unirest.RawResponse;
+import kong.unirest.UnirestInstance;
+import space.delusive.tversu.exception.FailureRequestException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Client of the university REST server. Every endpoint has its own limit of concurrent requests,
+ * so a slow endpoint can not take all the connections of others
+ */
+public interface UpstreamClient {
+    /**
+     * @param endpoint name of the endpoint, that is used for its concurrency limit and metrics
+     * @param request    builds the request using the client's connection pool
+     * @param bodyReader reads the body straight from the response stream
+     * @return future that fails with {@link FailureRequestException} on timeout, rejection, connection failure
+     * or failure of the body reader
+     */
+    <T> CompletableFuture<HttpResponse<T>> getAsync(String endpoint,
+                                                    Function<UnirestInstance, GetRequest> request,
+                                                    Function<RawResponse, T> bodyReader);
+
+    /**
+     * Same as {@link #getAsync(String, Function, Function)} but waits for the response
+     *
+     * @throws FailureRequestException on timeout, rejection, connection failure or failure of the body reader
+     */
+    default <T> HttpResponse<T> get(String endpoint,
+                                    Function<UnirestInstance, GetRequest> request,
+                                    Function<RawResponse, T> bodyReader) throws FailureRequestException {
+        try {
+            return getAsync(endpoint, request, bodyReader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof FailureRequestException) {
+                throw (FailureRequestException) e.getCause();
+            }
+            throw new FailureRequestException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package space.delusive.tversu.rest.impl;
+
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.component.MetricsRegistrar;
+import space.delusive.tversu.dto.CachedCells;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.TimetableChangedEvent;
+import space.delusive.tversu.dto.TimetableEvictedEvent;
+import space.delusive.tversu.exception.SoldisWhatTheFuckException;
+import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.rest.CellRepository;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps timetables of groups in memory. Expired entries are still served while
+ * a background refresh fetches the new version, so only the very first request of a group waits for the upstream.
+ * If the refresh fails, the last fetched timetable keeps being served and is marked as outdated.
+ * Replacing a cached timetable by another version publishes {@link TimetableChangedEvent},
+ * dropping it publishes {@link TimetableEvictedEvent}
+ */
+@Log4j2
+@Primary
+@Component
+public class CachingCellRepository implements CellRepository {
+    private static final String CACHE_NAME = "cells";
+
+    private final CellRepository upstreamCellRepository;
+    private final MetricsRegistrar metricsRegistrar;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Key> refreshingKeys = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+
+    @Autowired
+    public CachingCellRepository(@Qualifier("upstreamCellRepository") CellRepository upstreamCellRepository,
+                                 @Qualifier("config") DataManager config,
+                                 MetricsRegistrar metricsRegistrar,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.upstreamCellRepository = upstreamCellRepository;
+        this.metricsRegistrar = metricsRegistrar;
+        this.eventPublisher = eventPublisher;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(config.getInt("cache.cells.ttl.minutes"));
+        this.maxSize = config.getInt("cache.cells.max.size");
+        this.refreshExecutor = Executors.newFixedThreadPool(config.getInt("cache.cells.refresh.threads"), runnable -> {
+            Thread thread = new Thread(runnable, "cells-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returned list is shared between all callers, so it is unmodifiable
+     */
+    @Override
+    public List<Cell> getCells(String facultyId, String groupId) throws SoldisWhatTheFuckException {
+        Key key = new Key(facultyId, groupId);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            metricsRegistrar.registerCacheMiss(CACHE_NAME);
+            return load(key).getCells();
+        }
+        metricsRegistrar.registerCacheHit(CACHE_NAME);
+        long now = System.currentTimeMillis();
+        entry.setLastAccessTime(now);
+        if (now - entry.getLoadTime() > ttlMillis) {
+            scheduleRefresh(key);
+        }
+        return entry.getCells();
+    }
+
+    @Override
+    public boolean isOutdated(String facultyId, String groupId) {
+        Entry entry = entries.get(new Key(facultyId, groupId));
+        return entry != null && entry.isOutdated();
+    }
+
+    /**
+     * Loads the current version of the timetable regardless of the cached one
+     */
+    public void refresh(String facultyId, String groupId) throws SoldisWhatTheFuckException {
+        load(new Key(facultyId, groupId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * @return all cached timetables, e.g. to save them between restarts
+     */
+    public List<CachedCells> getCachedCells() {
+        List<CachedCells> cachedCells = new ArrayList<>(entries.size());
+        entries.forEach((key, entry) -> cachedCells.add(
+                new CachedCells(key.getFaculty(), key.getGroup(), entry.getCells(), entry.getLoadTime())));
+        return cachedCells;
+    }
+
+    /**
+     * Puts previously cached timetables back keeping their load time, so the expired ones are refreshed on demand.
+     * Timetables that are already cached are not replaced
+     */
+    public void restore(Collection<CachedCells> cachedCells) {
+        for (CachedCells cells : cachedCells) {
+            Entry entry = new Entry(List.copyOf(cells.getCells()), cells.getLoadTime());
+            if (entries.putIfAbsent(new Key(cells.getFaculty(), cells.getGroup()), entry) == null && entries.size() > maxSize) {
+                evictLeastRecentlyUsed();
+            }
+        }
+    }
+
+    /**
+     * Replaces cached timetables of the groups by the ones loaded in bulk, e.g. with the full table of the faculty
+     */
+    public void putAll(String facultyId, Map<String, List<Cell>> cellsByGroup) {
+        long now = System.currentTimeMillis();
+        cellsByGroup.forEach((groupId, cells) -> put(new Key(facultyId, groupId), new Entry(List.copyOf(cells), now)));
+    }
+
+    private Entry load(Key key) throws SoldisWhatTheFuckException {
+        List<Cell> cells = upstreamCellRepository.getCells(key.getFaculty(), key.getGroup());
+        Entry entry = new Entry(List.copyOf(cells), System.currentTimeMillis());
+        put(key, entry);
+        return entry;
+    }
+
+    private void put(Key key, Entry entry) {
+        Entry previousEntry = entries.put(key, entry);
+        if (previousEntry == null) {
+            if (entries.size() > maxSize) {
+                evictLeastRecentlyUsed();
+            }
+        } else if (previousEntry.getCells() != entry.getCells()) {
+            // the same list is kept while the upstream answers "304 Not Modified"
+            eventPublisher.publishEvent(new TimetableChangedEvent(key.getFaculty(), key.getGroup(),
+                    previousEntry.getCells(), entry.getCells()));
+        }
+    }
+
+    private void scheduleRefresh(Key key) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                load(key);
+            } catch (SoldisWhatTheFuckException e) {
+                log.warn("Group \"{}\" of faculty \"{}\" disappeared, dropping its timetable", key.getGroup(), key.getFaculty());
+                if (entries.remove(key) != null) {
+                    eventPublisher.publishEvent(new TimetableEvictedEvent(key.getFaculty(), key.getGroup()));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh timetable of group \"{}\" of faculty \"{}\", serving the stale one",
+                        key.getGroup(), key.getFaculty(), e);
+                Entry staleEntry = entries.get(key);
+                if (staleEntry != null) {
+                    staleEntry.setOutdated(true);
+                }
+            } finally {
+                refreshingKeys.remove(key);
+            }
+        });
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (entries.size() > maxSize) {
+            entries.entrySet().stream()
+                    .min((first, second) -> Long.compare(first.getValue().getLastAccessTime(), second.getValue().getLastAccessTime()))
+                    .ifPresent(eldest -> {
+                        if (entries.remove(eldest.getKey(), eldest.getValue())) {
+                            metricsRegistrar.registerCacheEviction(CACHE_NAME);
+                            eventPublisher.publishEvent(new TimetableEvictedEvent(eldest.getKey().getFaculty(),
+                                    eldest.getKey().getGroup()));
+                        }
+                    });
+        }
+    }
+
+    @Value
+    private static class Key {
+        String faculty;
+        String group;
+    }
+
+    @Getter
+    private static class Entry {
+        private final List<Cell> cells;
+        private final long loadTime;
+        private volatile long lastAccessTime;
+        private volatile boolean outdated;
+
+        Entry(List<Cell> cells, long loadTime) {
+            this.cells = cells;
+            this.loadTime = loadTime;
+            this.lastAccessTime = loadTime;
+        }
+
+        void setLastAccessTime(long lastAccessTime) {
+            this.lastAccessTime = lastAccessTime;
+        }
+
+        void setOutdated(boolean outdated) {
+            this.outdated = outdated;
+        }
+    }
+}
@@ -1,33 +1,63 @@
 package space.delusive.tversu.rest.impl;
 
-import kong.unirest.GenericType;
 import kong.unirest.HttpResponse;
-import kong.unirest.Unirest;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import space.delusive.tversu.component.MetricsRegistrar;
 import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.exception.FailureRequestException;
 import space.delusive.tversu.exception.SoldisWhatTheFuckException;
 import space.delusive.tversu.manager.DataManager;
 import space.delusive.tversu.rest.CellRepository;
+import space.delusive.tversu.rest.UpstreamClient;
+import space.delusive.tversu.util.SingleFlight;
 
 import java.util.List;
 
-@Component
-@RequiredArgsConstructor
+@Component("upstreamCellRepository")
 public class CellRepositoryImpl implements CellRepository {
     private static final int NOT_FOUND_STATUS_CODE = 404;
+    private static final String CELLS_ENDPOINT = "cells";
 
     private final DataManager config;
+    private final UpstreamClient upstreamClient;
+    private final SingleFlight<String, List<Cell>, SoldisWhatTheFuckException> cellsRequests;
+    private final ValidatorStore<List<Cell>> cellsValidators;
 
+    @Autowired
+    public CellRepositoryImpl(@Qualifier("config") DataManager config,
+                              UpstreamClient upstreamClient,
+                              MetricsRegistrar metricsRegistrar) {
+        this.config = config;
+        this.upstreamClient = upstreamClient;
+        this.cellsRequests = new SingleFlight<>(SoldisWhatTheFuckException.class,
+                () -> metricsRegistrar.registerCoalescedRequest(CELLS_ENDPOINT));
+        this.cellsValidators = new ValidatorStore<>(CELLS_ENDPOINT, metricsRegistrar,
+                config.getInt("cache.cells.max.size"));
+    }
+
+    /**
+     * Concurrent requests of the same group share one upstream call
+     */
     @Override
     public List<Cell> getCells(String facultyId, String groupId) throws SoldisWhatTheFuckException {
-        HttpResponse<List<Cell>> body = Unirest.get(config.getString("rest.get.cells.url"))
-                .routeParam("faculty", facultyId)
-                .routeParam("group", groupId)
-                .asObject(new GenericType<>() {});
-        if (body.getStatus() == NOT_FOUND_STATUS_CODE) {
+        return cellsRequests.execute(facultyId + '/' + groupId, () -> requestCells(facultyId, groupId));
+    }
+
+    private List<Cell> requestCells(String facultyId, String groupId) throws SoldisWhatTheFuckException {
+        String resource = facultyId + '/' + groupId;
+        HttpResponse<List<Cell>> response = upstreamClient.get(CELLS_ENDPOINT,
+                unirest -> cellsValidators.prepare(resource, unirest.get(config.getString("rest.get.cells.url"))
+                        .routeParam("faculty", facultyId)
+                        .routeParam("group", groupId)),
+                rawResponse -> cellsValidators.read(resource, rawResponse, reader -> List.copyOf(UpstreamJsonReader.readCells(reader))));
+        if (response.getStatus() == NOT_FOUND_STATUS_CODE) {
             throw new SoldisWhatTheFuckException("Seems like groups were renamed. Thanks Soldis...");
         }
-        return body.getBody();
+        if (response.getBody() == null) {
+            throw new FailureRequestException(String.format("Status: %s; Text: %s", response.getStatus(), response.getStatusText()));
+        }
+        return response.getBody();
     }
 }
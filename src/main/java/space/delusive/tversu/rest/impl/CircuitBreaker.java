@@ -0,0 +1,64 @@
+package space.delusive.tversu.rest.impl;
+
+/**
+ * Stops requests to an endpoint after several consecutive failures or too slow responses.
+ * When the open interval passes, one probe request is let through: its success closes the breaker, its failure opens it again
+ */
+public class CircuitBreaker {
+    public enum State {CLOSED, HALF_OPEN, OPEN}
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openIntervalNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedTime;
+
+    /**
+     * @param failureThreshold   consecutive failed or slow calls that open the breaker
+     * @param slowCallMillis     calls that take longer are treated as failed
+     * @param openIntervalMillis how long the breaker stays open before the probe call
+     */
+    public CircuitBreaker(int failureThreshold, long slowCallMillis, long openIntervalMillis) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCallMillis * 1_000_000;
+        this.openIntervalNanos = openIntervalMillis * 1_000_000;
+    }
+
+    /**
+     * @return whether the call may be performed. Every permitted call must be reported by {@link #onResult(boolean, long)}
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedTime < openIntervalNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                return true;
+            default:
+                // the probe call is already in flight
+                return false;
+        }
+    }
+
+    public synchronized void onResult(boolean success, long durationNanos) {
+        if (success && durationNanos <= slowCallNanos) {
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedTime = System.nanoTime();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
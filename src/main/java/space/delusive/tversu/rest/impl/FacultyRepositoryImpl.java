@@ -1,23 +1,23 @@
 package space.delusive.tversu.rest.impl;
 
 import kong.unirest.HttpResponse;
-import kong.unirest.JsonNode;
-import kong.unirest.Unirest;
-import kong.unirest.json.JSONObject;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import space.delusive.tversu.component.MetricsRegistrar;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.FacultyCatalog;
 import space.delusive.tversu.dto.WeekSign;
 import space.delusive.tversu.exception.FailureRequestException;
 import space.delusive.tversu.manager.DataManager;
 import space.delusive.tversu.rest.FacultyRepository;
+import space.delusive.tversu.rest.UpstreamClient;
+import space.delusive.tversu.util.SingleFlight;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * Получение инфы о факультетах с rest-сервера
@@ -25,9 +25,39 @@ import java.util.Set;
  * @author Delusive-
  */
 @Component
-@RequiredArgsConstructor
 public class FacultyRepositoryImpl implements FacultyRepository {
+    private static final String FACULTIES_ENDPOINT = "faculties";
+    private static final String GROUPS_ENDPOINT = "groups";
+    private static final String WEEK_SIGN_ENDPOINT = "week_sign";
+    private static final String TABLE_ENDPOINT = "table";
+
     private final DataManager config;
+    private final UpstreamClient upstreamClient;
+    private final SingleFlight<String, List<String>, RuntimeException> facultiesRequests;
+    private final SingleFlight<String, FacultyCatalog, RuntimeException> catalogRequests;
+    private final SingleFlight<String, WeekSign, RuntimeException> weekSignRequests;
+    private final SingleFlight<String, Map<String, List<Cell>>, RuntimeException> tableRequests;
+    private final ValidatorStore<FacultyCatalog> catalogValidators;
+    private final ValidatorStore<Map<String, List<Cell>>> tableValidators;
+
+    @Autowired
+    public FacultyRepositoryImpl(@Qualifier("config") DataManager config,
+                                 UpstreamClient upstreamClient,
+                                 MetricsRegistrar metricsRegistrar) {
+        this.config = config;
+        this.upstreamClient = upstreamClient;
+        this.facultiesRequests = new SingleFlight<>(RuntimeException.class,
+                () -> metricsRegistrar.registerCoalescedRequest(FACULTIES_ENDPOINT));
+        this.catalogRequests = new SingleFlight<>(RuntimeException.class,
+                () -> metricsRegistrar.registerCoalescedRequest(GROUPS_ENDPOINT));
+        this.weekSignRequests = new SingleFlight<>(RuntimeException.class,
+                () -> metricsRegistrar.registerCoalescedRequest(WEEK_SIGN_ENDPOINT));
+        this.tableRequests = new SingleFlight<>(RuntimeException.class,
+                () -> metricsRegistrar.registerCoalescedRequest(TABLE_ENDPOINT));
+        int facultiesMaxSize = config.getInt("validators.faculties.max.size");
+        this.catalogValidators = new ValidatorStore<>(GROUPS_ENDPOINT, metricsRegistrar, facultiesMaxSize);
+        this.tableValidators = new ValidatorStore<>(TABLE_ENDPOINT, metricsRegistrar, facultiesMaxSize);
+    }
 
     /**
      * Получение списка доступных факультетов
@@ -37,90 +67,75 @@ public class FacultyRepositoryImpl implements FacultyRepository {
      */
     @Override
     public List<String> getFaculties() throws FailureRequestException {
-        HttpResponse<JsonNode> response = Unirest.get(config.getString("rest.get.faculties.url")).asJson();
-        if (!response.isSuccess())
-            throw new FailureRequestException(String.format("Status: %s; Text: %s", response.getStatus(), response.getStatusText()));
-        var jsonFaculties = response.getBody().getObject().getJSONArray("faculties");
-        var faculties = new ArrayList<String>();
-        for (int i = 0; i < jsonFaculties.length(); i++) {
-            faculties.add(jsonFaculties.getString(i));
-        }
-        return faculties;
+        return facultiesRequests.execute("", this::requestFaculties);
     }
 
-
+    /**
+     * Получение всех групп факультета одним запросом
+     *
+     * @param faculty Факультет
+     * @return Дерево программ, курсов и групп факультета
+     * @throws FailureRequestException Если статус ответа не из "двухсотых"
+     */
     @Override
-    public Set<String> getPrograms(String faculty) throws FailureRequestException {
-        HttpResponse<JsonNode> response = Unirest.get(config.getString("rest.get.groups.url")).routeParam("faculty", faculty).asJson();
-        if (!response.isSuccess())
-            throw new FailureRequestException(String.format("Status: %s; Text: %s", response.getStatus(), response.getStatusText()));
-        var jsonGroups = response.getBody().getObject().getJSONArray("groups");
-        var programs = new HashSet<String>();
-        for (int i = 0; i < jsonGroups.length(); i++) {
-            programs.add(jsonGroups.getJSONObject(i).getString("level"));
-        }
-        return programs;
+    public FacultyCatalog getCatalog(String faculty) throws FailureRequestException {
+        return catalogRequests.execute(faculty, () -> requestCatalog(faculty));
     }
 
     @Override
-    public Set<Integer> getCourses(String faculty, String program) throws FailureRequestException {
-        HttpResponse<JsonNode> response = Unirest.get(config.getString("rest.get.groups.url")).routeParam("faculty", faculty).asJson();
-        if (!response.isSuccess())
-            throw new FailureRequestException(String.format("Status: %s; Text: %s", response.getStatus(), response.getStatusText()));
-        var jsonGroups = response.getBody().getObject().getJSONArray("groups");
-        var courses = new HashSet<Integer>();
-        for (int i = 0; i < jsonGroups.length(); i++) {
-            JSONObject jsonObject = jsonGroups.getJSONObject(i);
-            if (program.equals(jsonObject.getString("level"))) {
-                courses.add(jsonObject.getInt("course"));
-            }
-        }
-        return courses;
+    public WeekSign getWeekSign(String faculty, LocalDate day) {
+        return weekSignRequests.execute(faculty + '/' + day, () -> requestWeekSign(faculty, day));
     }
 
+    /**
+     * Получение расписания всех групп факультета одним запросом
+     *
+     * @param faculty Факультет
+     * @return Неизменяемые списки ячеек каждой группы по названию группы
+     * @throws FailureRequestException Если статус ответа не из "двухсотых"
+     */
     @Override
-    public Set<String> getGroups(String faculty, String program, int course) throws FailureRequestException {
-        HttpResponse<JsonNode> response = Unirest.get(config.getString("rest.get.groups.url")).routeParam("faculty", faculty).asJson();
-        if (!response.isSuccess())
-            throw new FailureRequestException(String.format("Status: %s; Text: %s", response.getStatus(), response.getStatusText()));
-        var jsonGroups = response.getBody().getObject().getJSONArray("groups");
-        var groups = new HashSet<String>();
-        for (int i = 0; i < jsonGroups.length(); i++) {
-            JSONObject jsonObject = jsonGroups.getJSONObject(i);
-            if (program.equals(jsonObject.getString("level")) && jsonObject.getInt("course") == course) {
-                groups.add(jsonObject.getString("name"));
-            }
-        }
-        return groups;
+    public Map<String, List<Cell>> getTable(String faculty) throws FailureRequestException {
+        return tableRequests.execute(faculty, () -> requestTable(faculty));
     }
 
-    @Override
-    public int getSubgroupsCount(String faculty, String program, int course, String group) throws FailureRequestException {
-        HttpResponse<JsonNode> response = Unirest.get(config.getString("rest.get.groups.url")).routeParam("faculty", faculty).asJson();
-        if (!response.isSuccess())
-            throw new FailureRequestException(String.format("Status: %s; Text: %s", response.getStatus(), response.getStatusText()));
-        var jsonGroups = response.getBody().getObject().getJSONArray("groups");
-        int subgroups = 0;
-        for (int i = 0; i < jsonGroups.length(); i++) {
-            JSONObject jsonObject = jsonGroups.getJSONObject(i);
-            if (program.equals(jsonObject.getString("level")) && jsonObject.getInt("course") == course && group.equals(jsonObject.getString("name")) && jsonObject.getInt("subgroups") > subgroups) {
-                subgroups = jsonObject.getInt("subgroups");
-            }
-        }
-        return subgroups;
+    private List<String> requestFaculties() throws FailureRequestException {
+        HttpResponse<List<String>> response = upstreamClient.get(FACULTIES_ENDPOINT,
+                unirest -> unirest.get(config.getString("rest.get.faculties.url")),
+                UpstreamJsonReader.whenSuccessful(UpstreamJsonReader::readFaculties));
+        return getBody(response);
     }
 
-    @Override
-    public WeekSign getCurrentWeekSign(String faculty) {
-        LocalDate localDate = LocalDate.now(ZoneId.of("Europe/Moscow"));
-        String weekSign = Unirest.get(config.getString("rest.get.week.sign.url"))
-                .routeParam("faculty", faculty)
-                .queryString("day", localDate.format(DateTimeFormatter.ISO_DATE))
-                .asJson()
-                .getBody()
-                .getObject()
-                .get("weekSign")
-                .toString();
-        return WeekSign.valueOf(weekSign);
+    private FacultyCatalog requestCatalog(String faculty) throws FailureRequestException {
+        HttpResponse<FacultyCatalog> response = upstreamClient.get(GROUPS_ENDPOINT,
+                unirest -> catalogValidators.prepare(faculty,
+                        unirest.get(config.getString("rest.get.groups.url")).routeParam("faculty", faculty)),
+                rawResponse -> catalogValidators.read(faculty, rawResponse,
+                        reader -> FacultyCatalog.of(UpstreamJsonReader.readGroups(reader))));
+        return getBody(response);
+    }
+
+    private WeekSign requestWeekSign(String faculty, LocalDate day) {
+        HttpResponse<WeekSign> response = upstreamClient.get(WEEK_SIGN_ENDPOINT,
+                unirest -> unirest.get(config.getString("rest.get.week.sign.url"))
+                        .routeParam("faculty", faculty)
+                        .queryString("day", day.format(DateTimeFormatter.ISO_DATE)),
+                UpstreamJsonReader.whenSuccessful(UpstreamJsonReader::readWeekSign));
+        return getBody(response);
+    }
+
+    private Map<String, List<Cell>> requestTable(String faculty) throws FailureRequestException {
+        HttpResponse<Map<String, List<Cell>>> response = upstreamClient.get(TABLE_ENDPOINT,
+                unirest -> tableValidators.prepare(faculty,
+                        unirest.get(config.getString("rest.get.faculty.table.url")).routeParam("faculty", faculty)),
+                rawResponse -> tableValidators.read(faculty, rawResponse,
+                        reader -> Map.copyOf(UpstreamJsonReader.readFacultyTable(reader))));
+        return getBody(response);
+    }
+
+    private <T> T getBody(HttpResponse<T> response) throws FailureRequestException {
+        if (response.getBody() == null)
+            throw new FailureRequestException(String.format("Status: %s; Text: %s", response.getStatus(), response.getStatusText()));
+        return response.getBody();
     }
 }
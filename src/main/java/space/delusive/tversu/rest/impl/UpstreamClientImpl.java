@@ -0,0 +1,164 @@
+package space.delusive.tversu.rest.impl;
+
+import kong.unirest.GetRequest;
+import kong.unirest.HttpResponse;
+import kong.unirest.RawResponse;
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import space.delusive.tversu.component.MetricsRegistrar;
+import space.delusive.tversu.exception.FailureRequestException;
+import space.delusive.tversu.manager.DataManager;
+import space.delusive.tversu.rest.UpstreamClient;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Non-blocking client with its own bounded connection pool.
+ * Requests above the concurrency limit of the endpoint wait in a bounded queue, requests above the queue are rejected.
+ * Requests to an endpoint that keeps failing are rejected by its circuit breaker without reaching the network
+ */
+@Component
+public class UpstreamClientImpl implements UpstreamClient {
+    private static final int SERVER_ERROR_STATUS_CODE = 500;
+
+    private final UnirestInstance unirest;
+    private final DataManager config;
+    private final MetricsRegistrar metricsRegistrar;
+    private final long requestTimeoutMillis;
+    private final int maxQueuedRequests;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UpstreamClientImpl(@Qualifier("config") DataManager config, MetricsRegistrar metricsRegistrar) {
+        this.config = config;
+        this.metricsRegistrar = metricsRegistrar;
+        this.requestTimeoutMillis = config.getInt("upstream.request.timeout.ms");
+        this.maxQueuedRequests = config.getInt("upstream.bulkhead.queue.size");
+        this.unirest = Unirest.spawnInstance();
+        unirest.config()
+                .connectTimeout(config.getInt("upstream.connect.timeout.ms"))
+                .socketTimeout(config.getInt("upstream.read.timeout.ms"))
+                .concurrency(config.getInt("upstream.max.connections"), config.getInt("upstream.max.connections.per.route"))
+                .automaticRetries(false);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> getAsync(String endpoint,
+                                                           Function<UnirestInstance, GetRequest> request,
+                                                           Function<RawResponse, T> bodyReader) {
+        CircuitBreaker circuitBreaker = getCircuitBreaker(endpoint);
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new FailureRequestException(endpoint + " is unavailable, its circuit breaker is open"));
+        }
+        CompletableFuture<HttpResponse<T>> response = new CompletableFuture<>();
+        long submitTime = System.nanoTime();
+        Runnable call = () -> {
+            if (response.isDone()) {
+                // the caller has already given up while the request was waiting in the queue
+                getBulkhead(endpoint).release();
+                circuitBreaker.onResult(false, System.nanoTime() - submitTime);
+                return;
+            }
+            long startTime = System.nanoTime();
+            CompletableFuture<HttpResponse<T>> networkCall;
+            try {
+                networkCall = request.apply(unirest).asObjectAsync(bodyReader);
+            } catch (RuntimeException e) {
+                networkCall = CompletableFuture.failedFuture(e);
+            }
+            networkCall.whenComplete((result, failure) -> {
+                long networkTime = System.nanoTime() - startTime;
+                getBulkhead(endpoint).release();
+                circuitBreaker.onResult(failure == null && result.getStatus() < SERVER_ERROR_STATUS_CODE, networkTime);
+                metricsRegistrar.registerUpstreamCall(endpoint, startTime - submitTime, networkTime,
+                        failure == null ? Integer.toString(result.getStatus()) : "failure");
+                if (failure == null) {
+                    response.complete(result);
+                } else {
+                    response.completeExceptionally(new FailureRequestException("Request to " + endpoint + " failed", unwrap(failure)));
+                }
+            });
+        };
+        if (!getBulkhead(endpoint).submit(call)) {
+            circuitBreaker.onResult(false, 0);
+            metricsRegistrar.registerUpstreamRejection(endpoint);
+            return CompletableFuture.failedFuture(new FailureRequestException("Too many requests to " + endpoint + " are waiting"));
+        }
+        return response
+                .orTimeout(requestTimeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(failure -> {
+                    if (unwrap(failure) instanceof TimeoutException) {
+                        throw new FailureRequestException(endpoint + " did not answer in " + requestTimeoutMillis + " ms");
+                    }
+                    throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        unirest.shutDown();
+    }
+
+    private Bulkhead getBulkhead(String endpoint) {
+        return bulkheads.computeIfAbsent(endpoint,
+                key -> new Bulkhead(config.getInt("upstream.bulkhead." + key), maxQueuedRequests));
+    }
+
+    private CircuitBreaker getCircuitBreaker(String endpoint) {
+        return circuitBreakers.computeIfAbsent(endpoint, key -> {
+            CircuitBreaker circuitBreaker = new CircuitBreaker(config.getInt("upstream.circuit.failure.threshold"),
+                    config.getInt("upstream.circuit.slow.call.ms"), config.getInt("upstream.circuit.open.interval.ms"));
+            metricsRegistrar.registerCircuitBreaker(key, () -> circuitBreaker.getState().ordinal());
+            return circuitBreaker;
+        });
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    @RequiredArgsConstructor
+    private static class Bulkhead {
+        private final int maxConcurrentRequests;
+        private final int maxQueuedRequests;
+        private final Queue<Runnable> queuedRequests = new ArrayDeque<>();
+        private int runningRequests;
+
+        boolean submit(Runnable request) {
+            synchronized (this) {
+                if (runningRequests >= maxConcurrentRequests) {
+                    return queuedRequests.size() < maxQueuedRequests && queuedRequests.add(request);
+                }
+                runningRequests++;
+            }
+            request.run();
+            return true;
+        }
+
+        void release() {
+            Runnable nextRequest;
+            synchronized (this) {
+                nextRequest = queuedRequests.poll();
+                if (nextRequest == null) {
+                    runningRequests--;
+                    return;
+                }
+            }
+            nextRequest.run();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package space.delusive.tversu.rest.impl;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import kong.unirest.RawResponse;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.Group;
+import space.delusive.tversu.dto.WeekSign;
+import space.delusive.tversu.exception.FailureRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads upstream responses token by token straight into DTOs, without reflection and intermediate JSON trees.
+ * Fields that are not used by the bot are skipped
+ */
+public class UpstreamJsonReader {
+    private static final int SUCCESSFUL_STATUS_CODE_CLASS = 2;
+
+    @FunctionalInterface
+    public interface Parser<T> {
+        T parse(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * @return body reader that parses only successful responses and gives null for others
+     */
+    public static <T> Function<RawResponse, T> whenSuccessful(Parser<T> parser) {
+        return response -> response.getStatus() / 100 == SUCCESSFUL_STATUS_CODE_CLASS ? read(response.getContent(), parser) : null;
+    }
+
+    public static <T> T read(InputStream inputStream, Parser<T> parser) throws FailureRequestException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return parser.parse(reader);
+        } catch (IOException | IllegalStateException | IllegalArgumentException e) {
+            throw new FailureRequestException("Could not parse upstream response", e);
+        }
+    }
+
+    public static List<Cell> readCells(JsonReader reader) throws IOException {
+        List<Cell> cells = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            cells.add(readCell(reader));
+        }
+        reader.endArray();
+        return cells;
+    }
+
+    /**
+     * Reads {"groups": [...]} object
+     */
+    public static List<Group> readGroups(JsonReader reader) throws IOException {
+        List<Group> groups = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("groups")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                groups.add(readGroup(reader));
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return groups;
+    }
+
+    /**
+     * Reads {"groups": [...]} object of the full table, where every group has its cells
+     *
+     * @return unmodifiable cells of every group by name of the group
+     */
+    public static Map<String, List<Cell>> readFacultyTable(JsonReader reader) throws IOException {
+        Map<String, List<Cell>> table = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("groups")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                readGroupTable(reader, table);
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return table;
+    }
+
+    /**
+     * Reads {"faculties": [...]} object
+     */
+    public static List<String> readFaculties(JsonReader reader) throws IOException {
+        List<String> faculties = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("faculties")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                faculties.add(reader.nextString());
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return faculties;
+    }
+
+    /**
+     * Reads {"weekSign": "..."} object
+     */
+    public static WeekSign readWeekSign(JsonReader reader) throws IOException {
+        WeekSign weekSign = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("weekSign")) {
+                weekSign = WeekSign.valueOf(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return weekSign;
+    }
+
+    private static void readGroupTable(JsonReader reader, Map<String, List<Cell>> table) throws IOException {
+        String name = null;
+        List<Cell> cells = List.of();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    name = readString(reader);
+                    break;
+                case "cells":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        cells = readCells(reader);
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (name != null) {
+            table.merge(name, List.copyOf(cells), (first, second) -> {
+                List<Cell> merged = new ArrayList<>(first);
+                merged.addAll(second);
+                return List.copyOf(merged);
+            });
+        }
+    }
+
+    private static Group readGroup(JsonReader reader) throws IOException {
+        String level = null;
+        String name = null;
+        int subgroups = 0;
+        int course = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "level":
+                    level = readString(reader);
+                    break;
+                case "name":
+                    name = readString(reader);
+                    break;
+                case "subgroups":
+                    subgroups = reader.nextInt();
+                    break;
+                case "course":
+                    course = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Group(level, name, subgroups, course);
+    }
+
+    private static Cell readCell(JsonReader reader) throws IOException {
+        Cell cell = new Cell();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "weekSign":
+                    cell.setWeekSign(WeekSign.valueOf(reader.nextString()));
+                    break;
+                case "fullSubjectName":
+                    cell.setFullSubjectName(reader.nextString());
+                    break;
+                case "shortSubjectName":
+                    cell.setShortSubjectName(reader.nextString());
+                    break;
+                case "teacherName":
+                    cell.setTeacherName(reader.nextString());
+                    break;
+                case "teacherTitle":
+                    cell.setTeacherTitle(reader.nextString());
+                    break;
+                case "dayOfWeek":
+                    cell.setDayOfWeek(DayOfWeek.valueOf(reader.nextString()));
+                    break;
+                case "columnPosition":
+                    cell.setColumnPosition((byte) reader.nextInt());
+                    break;
+                case "start":
+                    cell.setStart(reader.nextString());
+                    break;
+                case "end":
+                    cell.setEnd(reader.nextString());
+                    break;
+                case "auditoryAddress":
+                    cell.setAuditoryAddress(reader.nextString());
+                    break;
+                case "course":
+                    cell.setCourse((byte) reader.nextInt());
+                    break;
+                case "group":
+                    cell.setGroup(reader.nextString());
+                    break;
+                case "subgroup":
+                    cell.setSubgroup((byte) reader.nextInt());
+                    break;
+                case "crossPair":
+                    cell.setCrossPair(reader.nextBoolean());
+                    break;
+                case "faculty":
+                    cell.setFaculty(reader.nextString());
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return cell;
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -0,0 +1,141 @@
+package space.delusive.tversu.rest.impl;
+
+import kong.unirest.GetRequest;
+import kong.unirest.RawResponse;
+import lombok.Value;
+import space.delusive.tversu.component.MetricsRegistrar;
+import space.delusive.tversu.exception.FailureRequestException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers validators (ETag and Last-Modified) of every fetched resource together with its parsed body.
+ * Next requests of the resource are conditional, and "304 Not Modified" returns the remembered body without parsing.
+ * Only the given number of recently used resources is remembered, the least recently used one is forgotten first
+ *
+ * @param <T> parsed body of the resource
+ */
+public class ValidatorStore<T> {
+    private static final int NOT_MODIFIED_STATUS_CODE = 304;
+    private static final int SUCCESSFUL_STATUS_CODE_CLASS = 2;
+    private static final String ETAG_HEADER = "ETag";
+    private static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+
+    private final Map<String, ValidatedBody<T>> bodies;
+    private final String endpoint;
+    private final MetricsRegistrar metricsRegistrar;
+
+    /**
+     * @param maxSize how many resources are remembered at most
+     */
+    public ValidatorStore(String endpoint, MetricsRegistrar metricsRegistrar, int maxSize) {
+        this.endpoint = endpoint;
+        this.metricsRegistrar = metricsRegistrar;
+        this.bodies = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ValidatedBody<T>> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Makes the request conditional if validators of the resource are known
+     */
+    public GetRequest prepare(String resource, GetRequest request) {
+        ValidatedBody<T> validatedBody = bodies.get(resource);
+        if (validatedBody == null) {
+            return request;
+        }
+        if (validatedBody.getEtag() != null) {
+            request = request.header(IF_NONE_MATCH_HEADER, validatedBody.getEtag());
+        }
+        if (validatedBody.getLastModified() != null) {
+            request = request.header(IF_MODIFIED_SINCE_HEADER, validatedBody.getLastModified());
+        }
+        return request;
+    }
+
+    /**
+     * Is used as body reader of the response, so the new body is parsed straight from the response stream
+     *
+     * @param parser is called only if the resource was modified
+     * @return remembered body if the resource was not modified, the parsed new one if status of the response is 2xx,
+     * otherwise null
+     * @throws FailureRequestException if the body can not be parsed
+     */
+    public T read(String resource, RawResponse response, UpstreamJsonReader.Parser<T> parser) throws FailureRequestException {
+        ValidatedBody<T> validatedBody = bodies.get(resource);
+        if (response.getStatus() == NOT_MODIFIED_STATUS_CODE && validatedBody != null) {
+            metricsRegistrar.registerRevalidation(endpoint, "not_modified");
+            metricsRegistrar.registerRevalidationBytesSaved(endpoint, validatedBody.getLength());
+            return validatedBody.getBody();
+        }
+        if (response.getStatus() / 100 != SUCCESSFUL_STATUS_CODE_CLASS) {
+            return null;
+        }
+        if (validatedBody != null) {
+            metricsRegistrar.registerRevalidation(endpoint, "modified");
+        }
+        CountingInputStream content = new CountingInputStream(response.getContent());
+        T body = UpstreamJsonReader.read(content, parser);
+        String etag = getHeader(response, ETAG_HEADER);
+        String lastModified = getHeader(response, LAST_MODIFIED_HEADER);
+        if (etag != null || lastModified != null) {
+            bodies.put(resource, new ValidatedBody<>(body, etag, lastModified, content.getCount()));
+        } else {
+            bodies.remove(resource);
+        }
+        return body;
+    }
+
+    private String getHeader(RawResponse response, String name) {
+        String value = response.getHeaders().getFirst(name);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    @Value
+    private static class ValidatedBody<T> {
+        T body;
+        String etag;
+        String lastModified;
+        long length;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
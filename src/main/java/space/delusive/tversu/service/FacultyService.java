@@ -2,6 +2,7 @@ package space.delusive.tversu.service;
 
 import space.delusive.tversu.dto.WeekSign;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
 
@@ -18,5 +19,7 @@ public interface FacultyService {
 
     WeekSign getCurrentWeekSign(String faculty);
 
+    WeekSign getWeekSign(String faculty, LocalDate day);
+
     WeekSign getNextWeekSign(String faculty);
 }
@@ -1,7 +1,9 @@
 package space.delusive.tversu.service;
 
 import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.Lesson;
 import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.TimeContext;
 import space.delusive.tversu.dto.WeekSign;
 import space.delusive.tversu.entity.User;
 import space.delusive.tversu.exception.SoldisWhatTheFuckException;
@@ -11,15 +13,27 @@ import java.util.Map;
 import java.util.Optional;
 
 public interface TimingService {
-    Optional<Cell> getCurrentLesson(User user) throws SoldisWhatTheFuckException;
+    Optional<Lesson> getCurrentLesson(User user, TimeContext time) throws SoldisWhatTheFuckException;
 
-    Optional<Cell> getNextLesson(User user) throws SoldisWhatTheFuckException;
+    Optional<Lesson> getNextLesson(User user, TimeContext time) throws SoldisWhatTheFuckException;
 
-    List<Cell> getTodayLessons(User user) throws SoldisWhatTheFuckException;
+    /**
+     * @return whether the lesson returned by {@link #getNextLesson(User, TimeContext)} starts later today
+     */
+    boolean isNextLessonToday(User user, TimeContext time) throws SoldisWhatTheFuckException;
 
-    List<Cell> getTomorrowOrMondayLessons(User user) throws SoldisWhatTheFuckException;
+    List<Lesson> getTodayLessons(User user, TimeContext time) throws SoldisWhatTheFuckException;
 
-    Map<DayOfWeek, List<Cell>> getRemainingLessonsOfWeek(User user) throws SoldisWhatTheFuckException;
+    List<Lesson> getTomorrowOrMondayLessons(User user, TimeContext time) throws SoldisWhatTheFuckException;
 
-    List<Cell> getLessonsOfSpecifiedDay(User user, DayOfWeek dayOfWeek, WeekSign weekSign) throws SoldisWhatTheFuckException;
+    Map<DayOfWeek, List<Lesson>> getRemainingLessonsOfWeek(User user, TimeContext time) throws SoldisWhatTheFuckException;
+
+    List<Lesson> getLessonsOfSpecifiedDay(User user, DayOfWeek dayOfWeek, WeekSign weekSign) throws SoldisWhatTheFuckException;
+
+    boolean isTimetableOutdated(User user);
+
+    /**
+     * @return cells the timetable of the user is built of, the same list is returned until the timetable is changed
+     */
+    List<Cell> getCells(User user) throws SoldisWhatTheFuckException;
 }
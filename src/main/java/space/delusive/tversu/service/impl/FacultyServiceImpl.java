@@ -1,51 +1,167 @@
 package space.delusive.tversu.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import space.delusive.tversu.dto.CatalogsRefreshedEvent;
+import space.delusive.tversu.dto.FacultyCatalog;
 import space.delusive.tversu.dto.WeekSign;
 import space.delusive.tversu.rest.FacultyRepository;
 import space.delusive.tversu.service.FacultyService;
+import space.delusive.tversu.util.DateUtils;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Serves faculties and their group catalogs from memory.
+ * Catalogs are fetched on first demand and then kept fresh by the background refresh
+ */
+@Log4j2
 @Component
 @RequiredArgsConstructor
 public class FacultyServiceImpl implements FacultyService {
     private final FacultyRepository facultyRepository;
+    private final Clock clock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, FacultyCatalog> catalogs = new ConcurrentHashMap<>();
+    private final Map<String, WeekSignEntry> weekSigns = new ConcurrentHashMap<>();
+    private volatile List<String> faculties;
 
     @Override
     public List<String> getFaculties() {
-        return facultyRepository.getFaculties();
+        List<String> cachedFaculties = faculties;
+        if (cachedFaculties == null) {
+            cachedFaculties = List.copyOf(facultyRepository.getFaculties());
+            faculties = cachedFaculties;
+        }
+        return cachedFaculties;
     }
 
     @Override
     public Set<String> getPrograms(String faculty) {
-        return facultyRepository.getPrograms(faculty);
+        return getCatalog(faculty).getPrograms();
     }
 
     @Override
     public Set<Integer> getCourses(String faculty, String program) {
-        return facultyRepository.getCourses(faculty, program);
+        return getCatalog(faculty).getCourses(program);
     }
 
     @Override
     public Set<String> getGroups(String faculty, String program, int course) {
-        return facultyRepository.getGroups(faculty, program, course);
+        return getCatalog(faculty).getGroups(program, course);
     }
 
     @Override
     public int getSubgroupsCount(String faculty, String program, int course, String group) {
-        return facultyRepository.getSubgroupsCount(faculty, program, course, group);
+        return getCatalog(faculty).getSubgroupsCount(program, course, group);
     }
 
     @Override
     public WeekSign getCurrentWeekSign(String faculty) {
-        return facultyRepository.getCurrentWeekSign(faculty);
+        return getWeekSign(faculty, LocalDate.now(clock));
+    }
+
+    /**
+     * Week sign changes only on mondays, so it is requested at most once per faculty per ISO week.
+     * The sign is fetched outside of the map and the entry of the latest week wins.
+     * If the upstream is unavailable, the sign is derived from the last known one
+     */
+    @Override
+    public WeekSign getWeekSign(String faculty, LocalDate today) {
+        int currentWeek = DateUtils.getIsoWeek(today);
+        WeekSignEntry entry = weekSigns.get(faculty);
+        if (entry != null && entry.getWeek() == currentWeek) {
+            return entry.getWeekSign();
+        }
+        WeekSign fetchedWeekSign;
+        try {
+            fetchedWeekSign = facultyRepository.getWeekSign(faculty, today);
+        } catch (RuntimeException e) {
+            if (entry == null) {
+                throw e;
+            }
+            log.warn("Could not get week sign of faculty \"{}\", deriving it from the last known one", faculty, e);
+            long weeksPassed = ChronoUnit.WEEKS.between(getMonday(entry.getDay()), getMonday(today));
+            return weeksPassed % 2 == 0 ? entry.getWeekSign() : getOppositeWeekSign(entry.getWeekSign());
+        }
+        return weekSigns.merge(faculty, new WeekSignEntry(currentWeek, today, fetchedWeekSign),
+                (oldEntry, newEntry) -> oldEntry.getWeek() >= newEntry.getWeek() ? oldEntry : newEntry)
+                .getWeekSign();
     }
 
     @Override
     public WeekSign getNextWeekSign(String faculty) {
-        return getCurrentWeekSign(faculty) == WeekSign.MINUS ? WeekSign.PLUS : WeekSign.MINUS;
+        return getOppositeWeekSign(getCurrentWeekSign(faculty));
+    }
+
+    /**
+     * @return catalogs of all faculties that were requested, e.g. to save them between restarts
+     */
+    public Map<String, FacultyCatalog> getCachedCatalogs() {
+        return Map.copyOf(catalogs);
+    }
+
+    /**
+     * Puts previously fetched catalogs back, catalogs that are already fetched are not replaced
+     */
+    public void restoreCatalogs(Map<String, FacultyCatalog> cachedCatalogs) {
+        cachedCatalogs.forEach(catalogs::putIfAbsent);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.refresh.interval.ms}", initialDelayString = "${catalog.refresh.interval.ms}")
+    public void refreshCatalogs() {
+        try {
+            faculties = List.copyOf(facultyRepository.getFaculties());
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh faculties, keeping the previous list", e);
+        }
+        for (String faculty : catalogs.keySet()) {
+            try {
+                catalogs.put(faculty, facultyRepository.getCatalog(faculty));
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh catalog of faculty \"{}\", keeping the previous one", faculty, e);
+            }
+        }
+        eventPublisher.publishEvent(new CatalogsRefreshedEvent());
+    }
+
+    /**
+     * The catalog is fetched outside of the map, so a slow upstream does not lock other faculties.
+     * Concurrent fetches of one faculty are coalesced by the repository
+     */
+    private FacultyCatalog getCatalog(String faculty) {
+        FacultyCatalog catalog = catalogs.get(faculty);
+        if (catalog != null) {
+            return catalog;
+        }
+        FacultyCatalog fetchedCatalog = facultyRepository.getCatalog(faculty);
+        FacultyCatalog previousCatalog = catalogs.putIfAbsent(faculty, fetchedCatalog);
+        return previousCatalog != null ? previousCatalog : fetchedCatalog;
+    }
+
+    private static WeekSign getOppositeWeekSign(WeekSign weekSign) {
+        return weekSign == WeekSign.MINUS ? WeekSign.PLUS : WeekSign.MINUS;
+    }
+
+    private static LocalDate getMonday(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
+    }
+
+    @Value
+    private static class WeekSignEntry {
+        int week;
+        LocalDate day;
+        WeekSign weekSign;
     }
 }
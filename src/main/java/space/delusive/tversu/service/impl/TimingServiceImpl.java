@@ -2,15 +2,17 @@ package space.delusive.tversu.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import space.delusive.tversu.component.TimetableStore;
 import space.delusive.tversu.dto.Cell;
 import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.Lesson;
+import space.delusive.tversu.dto.TimeContext;
+import space.delusive.tversu.dto.Timeline;
 import space.delusive.tversu.dto.WeekSign;
 import space.delusive.tversu.entity.User;
 import space.delusive.tversu.exception.SoldisWhatTheFuckException;
 import space.delusive.tversu.rest.CellRepository;
-import space.delusive.tversu.service.FacultyService;
 import space.delusive.tversu.service.TimingService;
-import space.delusive.tversu.util.DateUtils;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,108 +22,75 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class TimingServiceImpl implements TimingService {
     private final CellRepository cellRepository;
-    private final FacultyService facultyService;
+    private final TimetableStore timetableStore;
 
     @Override
-    public Optional<Cell> getCurrentLesson(User user) throws SoldisWhatTheFuckException {
-        return getTodayLessonsAsStream(user)
-                .filter(cell -> DateUtils.compareTime(cell.getStart(), DateUtils.getCurrentTime()) != -1)
-                .filter(cell -> DateUtils.compareTime(cell.getEnd(), DateUtils.getCurrentTime()) != 1)
-                .findFirst();
+    public Optional<Lesson> getCurrentLesson(User user, TimeContext time) throws SoldisWhatTheFuckException {
+        return getTimeline(user).getCurrent(time.getMinuteOfFortnight()).stream().findFirst();
     }
 
+    /**
+     * Looks through the next days and weeks if there are no more lessons today
+     */
     @Override
-    public Optional<Cell> getNextLesson(User user) throws SoldisWhatTheFuckException {
-        return getTodayLessonsAsStream(user)
-                .filter(cell -> DateUtils.compareTime(cell.getStart(), DateUtils.getCurrentTime()) == -1)
-                .min((o1, o2) -> DateUtils.compareTime(o2.getStart(), o1.getStart()));
+    public Optional<Lesson> getNextLesson(User user, TimeContext time) throws SoldisWhatTheFuckException {
+        return getTimeline(user).getNext(time.getMinuteOfFortnight()).stream().findFirst();
     }
 
     @Override
-    public List<Cell> getTodayLessons(User user) throws SoldisWhatTheFuckException {
-        return getTodayLessonsAsStream(user).collect(Collectors.toList());
+    public boolean isNextLessonToday(User user, TimeContext time) throws SoldisWhatTheFuckException {
+        return getTimeline(user).isNextOnSameDay(time.getMinuteOfFortnight());
     }
 
     @Override
-    public List<Cell> getTomorrowOrMondayLessons(User user) throws SoldisWhatTheFuckException {
-        DayOfWeek targetDay = DateUtils.getCurrentDayOfWeek() == DayOfWeek.SATURDAY ?
-                DayOfWeek.MONDAY : DateUtils.getCurrentDayOfWeek().next();
-        return getLessonsOfDayAsStream(user, targetDay, targetDay == DayOfWeek.MONDAY).collect(Collectors.toList());
+    public List<Lesson> getTodayLessons(User user, TimeContext time) throws SoldisWhatTheFuckException {
+        return getLessonsOfDayAsStream(user, time.getDayOfWeek(), time.getWeekSign()).collect(Collectors.toList());
     }
 
     @Override
-    public Map<DayOfWeek, List<Cell>> getRemainingLessonsOfWeek(User user) throws SoldisWhatTheFuckException {
-        Map<DayOfWeek, List<Cell>> remainingLessonsOfWeek = new LinkedHashMap<>();
-        getLessonsOfWeekAsStream(user, false)
-                .filter(cell -> !cell.getDayOfWeek().isBeforeOf(DateUtils.getCurrentDayOfWeek()))
-                .forEach(cell -> {
-                    if (!remainingLessonsOfWeek.containsKey(cell.getDayOfWeek())) {
-                        remainingLessonsOfWeek.put(cell.getDayOfWeek(), new ArrayList<>());
-                    }
-                    remainingLessonsOfWeek.get(cell.getDayOfWeek()).add(cell);
-                });
-        return remainingLessonsOfWeek;
+    public List<Lesson> getTomorrowOrMondayLessons(User user, TimeContext time) throws SoldisWhatTheFuckException {
+        DayOfWeek targetDay = time.getDayOfWeek() == DayOfWeek.SATURDAY ? DayOfWeek.MONDAY : time.getDayOfWeek().next();
+        WeekSign targetWeekSign = targetDay == DayOfWeek.MONDAY ? time.getNextWeekSign() : time.getWeekSign();
+        return getLessonsOfDayAsStream(user, targetDay, targetWeekSign).collect(Collectors.toList());
     }
 
     @Override
-    public List<Cell> getLessonsOfSpecifiedDay(User user, DayOfWeek dayOfWeek, WeekSign weekSign) throws SoldisWhatTheFuckException {
-        boolean isCurrentWeek = weekSign.equals(facultyService.getCurrentWeekSign(user.getFaculty()));
-        return getLessonsOfDayAsStream(user, dayOfWeek, !isCurrentWeek).collect(Collectors.toList());
-    }
-
-    private Stream<Cell> getTodayLessonsAsStream(User user) throws SoldisWhatTheFuckException {
-        return getLessonsOfDayAsStream(user, DateUtils.getCurrentDayOfWeek(), false);
+    public Map<DayOfWeek, List<Lesson>> getRemainingLessonsOfWeek(User user, TimeContext time) throws SoldisWhatTheFuckException {
+        int weekStart = Timeline.getMinuteOfFortnight(time.getWeekSign(), DayOfWeek.MONDAY, 0);
+        int todayStart = Timeline.getMinuteOfFortnight(time.getWeekSign(), time.getDayOfWeek(), 0);
+        Map<DayOfWeek, List<Lesson>> remainingLessonsOfWeek = new LinkedHashMap<>();
+        getTimeline(user).getBetween(todayStart, weekStart + Timeline.MINUTES_PER_WEEK).forEach(lesson -> {
+            if (!remainingLessonsOfWeek.containsKey(lesson.getDayOfWeek())) {
+                remainingLessonsOfWeek.put(lesson.getDayOfWeek(), new ArrayList<>());
+            }
+            remainingLessonsOfWeek.get(lesson.getDayOfWeek()).add(lesson);
+        });
+        return remainingLessonsOfWeek;
     }
 
-    private Stream<Cell> getLessonsOfDayAsStream(User user, DayOfWeek day, boolean isNextWeek) throws SoldisWhatTheFuckException {
-        return getLessonsOfWeekAsStream(user, isNextWeek)
-                .filter(cell -> cell.getDayOfWeek() == day);
+    @Override
+    public List<Lesson> getLessonsOfSpecifiedDay(User user, DayOfWeek dayOfWeek, WeekSign weekSign) throws SoldisWhatTheFuckException {
+        return getLessonsOfDayAsStream(user, dayOfWeek, weekSign).collect(Collectors.toList());
     }
 
-    private Stream<Cell> getLessonsOfWeekAsStream(User user, boolean isNextWeek) throws SoldisWhatTheFuckException {
-        List<Cell> cells = cellRepository.getCells(user.getFaculty(), user.getGroup());
-        uniteSimilarCells(cells);
-        WeekSign targetWeekSign = isNextWeek ? facultyService.getNextWeekSign(user.getFaculty()) : facultyService.getCurrentWeekSign(user.getFaculty());
-        return cells.stream()
-                .filter(cell -> cell.getWeekSign() == targetWeekSign || cell.getWeekSign() == WeekSign.ANY)
-                .filter(cell -> cell.getSubgroup() == user.getSubgroup() || cell.getSubgroup() == 0);
+    @Override
+    public boolean isTimetableOutdated(User user) {
+        return cellRepository.isOutdated(user.getFaculty(), user.getGroup());
     }
 
-    // not efficient but in this case this can be forgiven I think :p
-    private void uniteSimilarCells(List<Cell> cells) {
-        for (DayOfWeek day : DayOfWeek.values()) {
-            uniteSimilarCellsOfOneDay(day, cells);
-        }
+    @Override
+    public List<Cell> getCells(User user) throws SoldisWhatTheFuckException {
+        return cellRepository.getCells(user.getFaculty(), user.getGroup());
     }
 
-    private void uniteSimilarCellsOfOneDay(DayOfWeek dayOfWeek, List<Cell> allCells) {
-        List<Cell> cellsOfDay = allCells.stream()
-                .filter(cell -> cell.getDayOfWeek() == dayOfWeek)
-                .collect(Collectors.toList());
-        List<Cell> unitedCells = new ArrayList<>();
-        for (Cell cell : cellsOfDay) {
-            if (unitedCells.contains(cell)) continue;
-            List<Cell> similarCells = getSimilarCells(cell, cellsOfDay);
-            similarCells.forEach(cell1 -> {
-                if (!cell.getTeacherName().contains(cell1.getTeacherName())) cell.setTeacherName(cell.getTeacherName() + ", " + cell1.getTeacherName());
-                if (!cell.getAuditoryAddress().contains(cell1.getAuditoryAddress())) cell.setAuditoryAddress(cell.getAuditoryAddress() + ", " + cell1.getAuditoryAddress());
-                unitedCells.add(cell1);
-            });
-        }
-        allCells.removeAll(unitedCells);
+    private Timeline getTimeline(User user) throws SoldisWhatTheFuckException {
+        return timetableStore.getTimetable(user.getFaculty(), user.getGroup()).getTimeline(user.getSubgroup());
     }
 
-    private List<Cell> getSimilarCells(Cell cell, List<Cell> allCells) {
-        List<Cell> similarCells = new ArrayList<>();
-        allCells.forEach(oneCell -> {
-            boolean isSimilar = cell.getStart().equals(oneCell.getStart()) &&
-                    cell.getDayOfWeek() == oneCell.getDayOfWeek() &&
-                    cell.getSubgroup() == oneCell.getSubgroup() &&
-                    (cell.getWeekSign() == oneCell.getWeekSign() || cell.getWeekSign() == WeekSign.ANY || oneCell.getWeekSign() == WeekSign.ANY) &&
-                    cell.getFullSubjectName().equals(oneCell.getFullSubjectName()) &&
-                    cell != oneCell;
-            if (isSimilar) similarCells.add(oneCell);
-        });
-        return similarCells;
+    private Stream<Lesson> getLessonsOfDayAsStream(User user, DayOfWeek day, WeekSign weekSign) throws SoldisWhatTheFuckException {
+        return timetableStore.getTimetable(user.getFaculty(), user.getGroup())
+                .getLessons(user.getSubgroup(), weekSign)
+                .stream()
+                .filter(lesson -> lesson.getDayOfWeek() == day);
     }
 }
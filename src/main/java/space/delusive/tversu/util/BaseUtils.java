@@ -22,8 +22,8 @@ public class BaseUtils {
     }
 
     public static String getFormattedMessageInAccusative(DayOfWeek dayOfWeek, WeekSign weekSign, DataManager messages, String propertyName) {
-        return messages.getString(propertyName)
-                .replaceAll("%day%", BaseUtils.getLocalizedNameOfDayInAccusative(dayOfWeek, messages))
-                .replaceAll("%week%", BaseUtils.getLocalizedNameOfWeekSign(weekSign, messages));
+        return messages.getTemplate(propertyName).format(
+                "day", getLocalizedNameOfDayInAccusative(dayOfWeek, messages),
+                "week", getLocalizedNameOfWeekSign(weekSign, messages));
     }
 }
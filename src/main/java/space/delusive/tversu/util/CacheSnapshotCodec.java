@@ -0,0 +1,246 @@
+package space.delusive.tversu.util;
+
+import lombok.extern.log4j.Log4j2;
+import space.delusive.tversu.dto.CacheSnapshot;
+import space.delusive.tversu.dto.CachedCells;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.FacultyCatalog;
+import space.delusive.tversu.dto.Group;
+import space.delusive.tversu.dto.WeekSign;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Binary format of {@link CacheSnapshot}. Every string is written once into the dictionary,
+ * groups and cells are fixed-width records that refer to the dictionary by index.
+ * <pre>
+ * header:     magic (int), version (short), created time (long), payload length (int), CRC32 of payload (long)
+ * dictionary: count (int), then UTF-8 length (short) and bytes of every string
+ * catalogs:   count (int), then faculty (int) and groups count (int) followed by group records
+ * group:      level (int), name (int), course (byte), subgroups (byte)
+ * timetables: count (int), then faculty (int), group (int), load time (long) and cells count (int) followed by cell records
+ * cell:       {@link #CELL_RECORD_LENGTH} bytes, see {@link #writeCell(DataOutputStream, Cell, Dictionary)}
+ * </pre>
+ */
+@Log4j2
+public class CacheSnapshotCodec {
+    private static final int MAGIC = 0x54545342; // "TTSB"
+    private static final short VERSION = 1;
+    private static final int HEADER_LENGTH = 4 + 2 + 8 + 4 + 8;
+    private static final int CELL_RECORD_LENGTH = 42;
+    private static final int NULL_REFERENCE = -1;
+    private static final int NULL_ORDINAL = -1;
+    private static final int MAX_STRING_LENGTH = 0xFFFF;
+
+    public static byte[] encode(CacheSnapshot snapshot) {
+        try {
+            Dictionary dictionary = new Dictionary();
+            ByteArrayOutputStream records = new ByteArrayOutputStream();
+            DataOutputStream recordsOutput = new DataOutputStream(records);
+            recordsOutput.writeInt(snapshot.getCatalogs().size());
+            for (Map.Entry<String, FacultyCatalog> catalog : snapshot.getCatalogs().entrySet()) {
+                List<Group> groups = catalog.getValue().toGroups();
+                recordsOutput.writeInt(dictionary.indexOf(catalog.getKey()));
+                recordsOutput.writeInt(groups.size());
+                for (Group group : groups) {
+                    recordsOutput.writeInt(dictionary.indexOf(group.getLevel()));
+                    recordsOutput.writeInt(dictionary.indexOf(group.getName()));
+                    recordsOutput.writeByte(group.getCourse());
+                    recordsOutput.writeByte(group.getSubgroups());
+                }
+            }
+            recordsOutput.writeInt(snapshot.getTimetables().size());
+            for (CachedCells timetable : snapshot.getTimetables()) {
+                recordsOutput.writeInt(dictionary.indexOf(timetable.getFaculty()));
+                recordsOutput.writeInt(dictionary.indexOf(timetable.getGroup()));
+                recordsOutput.writeLong(timetable.getLoadTime());
+                recordsOutput.writeInt(timetable.getCells().size());
+                for (Cell cell : timetable.getCells()) {
+                    writeCell(recordsOutput, cell, dictionary);
+                }
+            }
+
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(records.size() + dictionary.size() * 16);
+            DataOutputStream payloadOutput = new DataOutputStream(payload);
+            payloadOutput.writeInt(dictionary.size());
+            for (String string : dictionary.getStrings()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > MAX_STRING_LENGTH) {
+                    throw new IllegalArgumentException("String is too long for the snapshot: " + bytes.length + " bytes");
+                }
+                payloadOutput.writeShort(bytes.length);
+                payloadOutput.write(bytes);
+            }
+            records.writeTo(payloadOutput);
+            byte[] payloadBytes = payload.toByteArray();
+
+            CRC32 checksum = new CRC32();
+            checksum.update(payloadBytes);
+            ByteBuffer snapshotBytes = ByteBuffer.allocate(HEADER_LENGTH + payloadBytes.length)
+                    .putInt(MAGIC)
+                    .putShort(VERSION)
+                    .putLong(snapshot.getCreatedTime())
+                    .putInt(payloadBytes.length)
+                    .putLong(checksum.getValue())
+                    .put(payloadBytes);
+            return snapshotBytes.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return decoded snapshot or empty one if the data is not a snapshot of the current version or is corrupted
+     */
+    public static Optional<CacheSnapshot> decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                log.warn("Snapshot has unknown format or version, ignoring it");
+                return Optional.empty();
+            }
+            long createdTime = buffer.getLong();
+            int payloadLength = buffer.getInt();
+            long expectedChecksum = buffer.getLong();
+            ByteBuffer payload = buffer.slice().limit(payloadLength);
+            CRC32 checksum = new CRC32();
+            checksum.update(payload.duplicate());
+            if (checksum.getValue() != expectedChecksum) {
+                log.warn("Snapshot checksum does not match, ignoring it");
+                return Optional.empty();
+            }
+
+            String[] dictionary = new String[payload.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] bytes = new byte[Short.toUnsignedInt(payload.getShort())];
+                payload.get(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            Map<String, FacultyCatalog> catalogs = new LinkedHashMap<>();
+            int catalogsCount = payload.getInt();
+            for (int i = 0; i < catalogsCount; i++) {
+                String faculty = dictionary[payload.getInt()];
+                List<Group> groups = new ArrayList<>();
+                int groupsCount = payload.getInt();
+                for (int j = 0; j < groupsCount; j++) {
+                    String level = dictionary[payload.getInt()];
+                    String name = dictionary[payload.getInt()];
+                    int course = payload.get();
+                    int subgroups = payload.get();
+                    groups.add(new Group(level, name, subgroups, course));
+                }
+                catalogs.put(faculty, FacultyCatalog.of(groups));
+            }
+            List<CachedCells> timetables = new ArrayList<>();
+            int timetablesCount = payload.getInt();
+            for (int i = 0; i < timetablesCount; i++) {
+                String faculty = dictionary[payload.getInt()];
+                String group = dictionary[payload.getInt()];
+                long loadTime = payload.getLong();
+                Cell[] cells = new Cell[payload.getInt()];
+                for (int j = 0; j < cells.length; j++) {
+                    cells[j] = readCell(payload, dictionary);
+                }
+                timetables.add(new CachedCells(faculty, group, List.of(cells), loadTime));
+            }
+            return Optional.of(new CacheSnapshot(createdTime, catalogs, timetables));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            log.warn("Snapshot is corrupted, ignoring it", e);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeCell(DataOutputStream output, Cell cell, Dictionary dictionary) throws IOException {
+        writeOrdinal(output, cell.getWeekSign());
+        output.writeInt(dictionary.indexOf(cell.getFullSubjectName()));
+        output.writeInt(dictionary.indexOf(cell.getShortSubjectName()));
+        output.writeInt(dictionary.indexOf(cell.getTeacherName()));
+        output.writeInt(dictionary.indexOf(cell.getTeacherTitle()));
+        writeOrdinal(output, cell.getDayOfWeek());
+        output.writeByte(cell.getColumnPosition());
+        output.writeInt(dictionary.indexOf(cell.getStart()));
+        output.writeInt(dictionary.indexOf(cell.getEnd()));
+        output.writeInt(dictionary.indexOf(cell.getAuditoryAddress()));
+        output.writeByte(cell.getCourse());
+        output.writeInt(dictionary.indexOf(cell.getGroup()));
+        output.writeByte(cell.getSubgroup());
+        output.writeBoolean(cell.isCrossPair());
+        output.writeInt(dictionary.indexOf(cell.getFaculty()));
+    }
+
+    private static Cell readCell(ByteBuffer input, String[] dictionary) {
+        if (input.remaining() < CELL_RECORD_LENGTH) {
+            throw new BufferUnderflowException();
+        }
+        Cell cell = new Cell();
+        cell.setWeekSign(getEnum(input, WeekSign.values()));
+        cell.setFullSubjectName(getString(input, dictionary));
+        cell.setShortSubjectName(getString(input, dictionary));
+        cell.setTeacherName(getString(input, dictionary));
+        cell.setTeacherTitle(getString(input, dictionary));
+        cell.setDayOfWeek(getEnum(input, DayOfWeek.values()));
+        cell.setColumnPosition(input.get());
+        cell.setStart(getString(input, dictionary));
+        cell.setEnd(getString(input, dictionary));
+        cell.setAuditoryAddress(getString(input, dictionary));
+        cell.setCourse(input.get());
+        cell.setGroup(getString(input, dictionary));
+        cell.setSubgroup(input.get());
+        cell.setCrossPair(input.get() != 0);
+        cell.setFaculty(getString(input, dictionary));
+        return cell;
+    }
+
+    /**
+     * Upstream leaves week sign or day of week of some cells empty, such cells are kept as they are
+     */
+    private static void writeOrdinal(DataOutputStream output, Enum<?> value) throws IOException {
+        output.writeByte(value == null ? NULL_ORDINAL : value.ordinal());
+    }
+
+    private static <E extends Enum<E>> E getEnum(ByteBuffer input, E[] values) {
+        int ordinal = input.get();
+        return ordinal == NULL_ORDINAL ? null : values[ordinal];
+    }
+
+    private static String getString(ByteBuffer input, String[] dictionary) {
+        int index = input.getInt();
+        return index == NULL_REFERENCE ? null : dictionary[index];
+    }
+
+    private static class Dictionary {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int indexOf(String string) {
+            if (string == null) {
+                return NULL_REFERENCE;
+            }
+            return indexes.computeIfAbsent(string, key -> {
+                strings.add(key);
+                return strings.size() - 1;
+            });
+        }
+
+        List<String> getStrings() {
+            return strings;
+        }
+
+        int size() {
+            return strings.size();
+        }
+    }
+}
@@ -1,46 +1,58 @@
 package space.delusive.tversu.util;
 
-import space.delusive.tversu.dto.DayOfWeek;
-
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
 
 public class DateUtils {
     private static final ZoneId moscowZoneId = ZoneId.of("Europe/Moscow");
+    private static final int MINUTES_PER_HOUR = 60;
 
-    public static DayOfWeek getCurrentDayOfWeek() {
-        LocalDate localDate = LocalDate.now(moscowZoneId);
-        return DayOfWeek.valueOf(localDate.getDayOfWeek().toString());
+    public static ZoneId getZoneId() {
+        return moscowZoneId;
     }
 
     /**
-     * Compares two times in format HH:mm
+     * Identifies the ISO week of the date, so two dates give the same value only if they are in the same week
      *
-     * @param one first time in format HH:mm
-     * @param two second time in format HH:mm
-     * @return one > two == -1 | one == two == 0 | one < two == 1
+     * @param date any date
+     * @return week-based year and week number in format yyyyww, e.g. 202053 for 2021-01-03
      */
-    public static byte compareTime(String one, String two) {
-        String[] first = one.split(":");
-        String[] second = two.split(":");
-        byte firstHours = Byte.parseByte(first[0]);
-        byte firstMins = Byte.parseByte(first[1]);
-        byte secondHours = Byte.parseByte(second[0]);
-        byte secondMins = Byte.parseByte(second[1]);
+    public static int getIsoWeek(LocalDate date) {
+        return date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
 
-        if (firstHours > secondHours) return -1;
-        if (firstHours < secondHours) return 1;
-        if (firstMins == secondMins) return 0;
-        return (byte) (firstMins > secondMins ? -1 : 1);
+    /**
+     * @param time time in format HH:mm
+     * @return minutes passed since midnight
+     * @throws NumberFormatException if the time is not in format HH:mm
+     */
+    public static short parseMinuteOfDay(String time) {
+        int colonIndex = time.indexOf(':');
+        if (colonIndex == -1) {
+            throw new NumberFormatException("Time is not in format HH:mm: " + time);
+        }
+        return (short) (Integer.parseInt(time.substring(0, colonIndex)) * MINUTES_PER_HOUR
+                + Integer.parseInt(time.substring(colonIndex + 1)));
     }
 
-    public static String getCurrentTime() {
-        return LocalDateTime.now(moscowZoneId).format(DateTimeFormatter.ofPattern("HH:mm"));
+    /**
+     * @param minuteOfDay minutes passed since midnight
+     * @return time in format HH:mm
+     */
+    public static String formatMinuteOfDay(int minuteOfDay) {
+        int hours = minuteOfDay / MINUTES_PER_HOUR;
+        int minutes = minuteOfDay % MINUTES_PER_HOUR;
+        return new String(new char[]{
+                (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':', (char) ('0' + minutes / 10), (char) ('0' + minutes % 10)
+        });
     }
 
-    public static boolean isNowBeginningOfDay() {
-        return LocalDateTime.now(moscowZoneId).getHour() <= 5;
+    /**
+     * @return minutes passed since midnight of the day of the time
+     */
+    public static short getMinuteOfDay(LocalDateTime time) {
+        return (short) (time.getHour() * MINUTES_PER_HOUR + time.getMinute());
     }
 }
@@ -0,0 +1,125 @@
+package space.delusive.tversu.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text with placeholders like %day% that is split into literals and placeholders once,
+ * so formatting is one pass that appends every segment to a builder of the final size.
+ * Placeholders that are not given a value are kept as they are, like {@link String#replace} does
+ */
+public class MessageTemplate {
+    private static final char PLACEHOLDER_BOUND = '%';
+
+    private final String text;
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalsLength;
+
+    private MessageTemplate(String text, String[] literals, String[] placeholders) {
+        this.text = text;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalsLength = length;
+    }
+
+    /**
+     * @param text text with placeholders, a placeholder is a name of latin letters and digits between two "%"
+     */
+    public static MessageTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int literalStart = 0;
+        int searchFrom = 0;
+        while (true) {
+            int start = text.indexOf(PLACEHOLDER_BOUND, searchFrom);
+            int end = start == -1 ? -1 : text.indexOf(PLACEHOLDER_BOUND, start + 1);
+            if (end == -1) {
+                break;
+            }
+            if (isPlaceholderName(text, start + 1, end)) {
+                literals.add(text.substring(literalStart, start));
+                placeholders.add(text.substring(start + 1, end));
+                literalStart = end + 1;
+                searchFrom = end + 1;
+            } else {
+                searchFrom = end;
+            }
+        }
+        literals.add(text.substring(literalStart));
+        return new MessageTemplate(text, literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * @param namesAndValues names of placeholders without "%" followed by their values, e.g. "day", "понедельник"
+     */
+    public String format(String... namesAndValues) {
+        if (placeholders.length == 0) {
+            return text;
+        }
+        String[] values = resolve(namesAndValues);
+        int length = literalsLength;
+        for (String value : values) {
+            length += value.length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        appendSegments(builder, values);
+        return builder.toString();
+    }
+
+    /**
+     * Same as {@link #format(String...)}, but appends the text to the builder
+     */
+    public StringBuilder formatTo(StringBuilder builder, String... namesAndValues) {
+        if (placeholders.length == 0) {
+            return builder.append(text);
+        }
+        appendSegments(builder, resolve(namesAndValues));
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private String[] resolve(String[] namesAndValues) {
+        String[] values = new String[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = null;
+            for (int j = 0; j + 1 < namesAndValues.length; j += 2) {
+                if (placeholders[i].equals(namesAndValues[j])) {
+                    value = namesAndValues[j + 1];
+                    break;
+                }
+            }
+            values[i] = value != null ? value : PLACEHOLDER_BOUND + placeholders[i] + PLACEHOLDER_BOUND;
+        }
+        return values;
+    }
+
+    private void appendSegments(StringBuilder builder, String[] values) {
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]).append(values[i]);
+        }
+        builder.append(literals[placeholders.length]);
+    }
+
+    private static boolean isPlaceholderName(String text, int from, int to) {
+        if (from == to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            boolean isLatinLetter = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+            if (!isLatinLetter && !(i > from && c >= '0' && c <= '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
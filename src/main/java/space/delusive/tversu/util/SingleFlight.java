@@ -0,0 +1,65 @@
+package space.delusive.tversu.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets concurrent callers of the same key share one call: the first caller performs it,
+ * the others wait for its future instead of repeating the call
+ *
+ * @param <K> key of the call, e.g. requested resource
+ * @param <V> result of the call
+ * @param <E> checked exception that the call may throw
+ */
+public class SingleFlight<K, V, E extends Exception> {
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Class<E> exceptionClass;
+    private final Runnable collapseListener;
+
+    /**
+     * @param exceptionClass   checked exception of the call that is rethrown to waiting callers as is
+     * @param collapseListener is run every time a caller joins the call of another one
+     */
+    public SingleFlight(Class<E> exceptionClass, Runnable collapseListener) {
+        this.exceptionClass = exceptionClass;
+        this.collapseListener = collapseListener;
+    }
+
+    public V execute(K key, Call<V, E> call) throws E {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> callInFlight = calls.putIfAbsent(key, future);
+        if (callInFlight != null) {
+            collapseListener.run();
+            return await(callInFlight);
+        }
+        try {
+            V result = call.call();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> callInFlight) throws E {
+        try {
+            return callInFlight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (exceptionClass.isInstance(cause)) throw exceptionClass.cast(cause);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call<V, E extends Exception> {
+        V call() throws E;
+    }
+}
@@ -0,0 +1,56 @@
+package space.delusive.tversu.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket that hands out reservations instead of rejecting: every call takes one token
+ * and gets the time when the token is there. The bucket is kept as the time when it is empty
+ * again (virtual scheduling), so it does not need a timer to refill.
+ * All times are {@link System#nanoTime()} values
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    private boolean used;
+    private long emptyUntil;
+
+    /**
+     * @param permitsPerSecond how fast tokens are refilled
+     * @param burst            how many tokens the full bucket holds
+     */
+    public TokenBucket(int permitsPerSecond, int burst) {
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstNanos = intervalNanos * (burst - 1);
+    }
+
+    /**
+     * @param notBefore the token is not taken earlier than this time
+     * @return the time when the token may be used, never earlier than notBefore
+     */
+    public synchronized long reserve(long notBefore) {
+        if (!used) {
+            used = true;
+            emptyUntil = notBefore;
+        }
+        long at = Math.max(notBefore, emptyUntil - burstNanos);
+        emptyUntil = Math.max(emptyUntil, at) + intervalNanos;
+        return at;
+    }
+
+    /**
+     * Gives out no tokens until the time, e.g. when the other side asked to wait.
+     * After that the bucket is refilled from empty, so the burst is not sent at once
+     */
+    public synchronized void blockUntil(long time) {
+        emptyUntil = used ? Math.max(emptyUntil, time + burstNanos) : time + burstNanos;
+        used = true;
+    }
+
+    /**
+     * @return whether the bucket is full at the time, so forgetting it changes nothing
+     */
+    public synchronized boolean isFull(long time) {
+        return !used || time >= emptyUntil;
+    }
+}
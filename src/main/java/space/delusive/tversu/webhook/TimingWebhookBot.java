@@ -0,0 +1,91 @@
+package space.delusive.tversu.webhook;
+
+import lombok.extern.log4j.Log4j2;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.bots.TelegramWebhookBot;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import space.delusive.tversu.TversuTimingBot;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Passes updates that come to the webhook to the same pipeline as long polling does.
+ * If the response is ready in time, it is returned as the answer to the webhook request and Telegram executes it,
+ * so no separate API call is made. Otherwise the webhook request is answered empty and the response is sent later
+ */
+@Log4j2
+public class TimingWebhookBot extends TelegramWebhookBot {
+    private final TversuTimingBot bot;
+    private final String botPath;
+    private final long inlineTimeoutMillis;
+
+    public TimingWebhookBot(DefaultBotOptions options, TversuTimingBot bot, String botPath, long inlineTimeoutMillis) {
+        super(options);
+        this.bot = bot;
+        this.botPath = botPath;
+        this.inlineTimeoutMillis = inlineTimeoutMillis;
+    }
+
+    @Override
+    public BotApiMethod<?> onWebhookUpdateReceived(Update update) {
+        CompletableFuture<SendMessage> inlineResponse = new CompletableFuture<>();
+        // whoever completes the future first decides whether the response goes inline or with a separate call
+        boolean isHandled = bot.handleUpdate(update, response -> {
+            if (!inlineResponse.complete(response)) {
+                bot.send(response);
+            }
+        }, inlineResponse::completeExceptionally);
+        if (!isHandled) {
+            return null;
+        }
+        try {
+            return inlineResponse.get(inlineTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return giveUpInlineResponse(inlineResponse);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return giveUpInlineResponse(inlineResponse);
+        } catch (ExecutionException e) {
+            // the failure itself is logged by the lane
+            log.debug("Update {} was not handled, answering the webhook request empty", update.getUpdateId());
+            return null;
+        }
+    }
+
+    /**
+     * Completes the future empty, so a later response is sent with a separate call.
+     * If the response or a failure came right before, the response is still returned, and the failure is answered empty
+     */
+    private static SendMessage giveUpInlineResponse(CompletableFuture<SendMessage> inlineResponse) {
+        if (inlineResponse.complete(null)) {
+            return null;
+        }
+        try {
+            return inlineResponse.getNow(null);
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getBotUsername() {
+        return bot.getBotUsername();
+    }
+
+    @Override
+    public String getBotToken() {
+        return bot.getBotToken();
+    }
+
+    @Override
+    public String getBotPath() {
+        return botPath;
+    }
+}
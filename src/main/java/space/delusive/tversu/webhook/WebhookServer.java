@@ -0,0 +1,125 @@
+package space.delusive.tversu.webhook;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.log4j.Log4j2;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.generics.WebhookBot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP endpoint of the webhook, built on the HTTP server of the JDK.
+ * Update is read from the request body by the streaming parser without buffering the body,
+ * and the method returned by the bot is written as the answer. TLS is expected to be terminated by a proxy.
+ * Anyone who knows the path can post updates on behalf of any user, so the path of the bot must be a secret,
+ * and requests to any other path are answered "404 Not Found".
+ * Recorded updates can be POSTed to the endpoint to try the bot locally
+ */
+@Log4j2
+public class WebhookServer {
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final int NO_BODY = -1;
+    private static final int NO_RESPONSE_CODE = -1;
+    private static final int MIN_SECRET_PATH_LENGTH = 16;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final WebhookBot bot;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String path;
+
+    /**
+     * @throws IllegalArgumentException if path of the bot is too short to be a secret
+     */
+    public WebhookServer(WebhookBot bot, int port, int threads) throws IOException {
+        String botPath = bot.getBotPath();
+        if (botPath == null || botPath.length() < MIN_SECRET_PATH_LENGTH) {
+            throw new IllegalArgumentException("Webhook path must be a secret of at least " + MIN_SECRET_PATH_LENGTH + " characters");
+        }
+        this.bot = bot;
+        this.path = "/" + botPath;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "webhook");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(path, this::handle);
+        server.createContext("/", this::handleUnknownPath);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        log.info("Webhook is listening on port {}", getPort());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleUnknownPath(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+            exchange.sendResponseHeaders(404, NO_BODY);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            // the context also matches longer paths that start with the secret
+            if (!path.equals(exchange.getRequestURI().getPath())) {
+                handleUnknownPath(exchange);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, NO_BODY);
+                return;
+            }
+            Update update;
+            try (InputStream body = exchange.getRequestBody()) {
+                update = objectMapper.readValue(body, Update.class);
+            } catch (IOException e) {
+                log.warn("Could not read update from webhook request", e);
+                exchange.sendResponseHeaders(400, NO_BODY);
+                return;
+            }
+            BotApiMethod<?> response = bot.onWebhookUpdateReceived(update);
+            if (response == null) {
+                exchange.sendResponseHeaders(200, NO_BODY);
+                return;
+            }
+            byte[] responseBody = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, responseBody.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(responseBody);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not handle webhook request", e);
+            // if the headers are already sent, the request is only closed
+            if (exchange.getResponseCode() == NO_RESPONSE_CODE) {
+                exchange.sendResponseHeaders(500, NO_BODY);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package space.delusive.tversu;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.exception.NoSuchButtonException;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ButtonTest {
+    @Test
+    @DisplayName("Button of when text differs only in case returns the button")
+    public void shouldFindButtonIgnoringCase() {
+        for (Button button : Button.values()) {
+            assertEquals(button, Button.of(button.getLocalizedName()));
+            assertEquals(button, Button.of(button.getLocalizedName().toUpperCase(Locale.ROOT)));
+        }
+    }
+
+    @Test
+    @DisplayName("Button of when there is no button with the text throws NoSuchButtonException")
+    public void shouldThrowOnUnknownText() {
+        assertThrows(NoSuchButtonException.class, () -> Button.of("Нет такой кнопки"));
+    }
+}
@@ -0,0 +1,131 @@
+package space.delusive.tversu.component;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import space.delusive.tversu.manager.MapDataManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundSenderTest {
+    private static final MapDataManager CONFIG = new MapDataManager(
+            "outbound.queue.size", 100,
+            "outbound.max.retries", 3,
+            "outbound.backoff.ms", 50,
+            "outbound.chat.messages.per.second", 1,
+            "outbound.chat.burst", 3,
+            "outbound.global.messages.per.second", 30,
+            "outbound.global.burst", 30);
+
+    private final List<String> sentTexts = new CopyOnWriteArrayList<>();
+    private OutboundSender outboundSender;
+
+    @AfterEach
+    public void shutdown() {
+        outboundSender.shutdown();
+    }
+
+    @Test
+    @DisplayName("OutboundSender send when another chat waits after 429 sends the message without waiting")
+    public void shouldNotDelayOtherChatsBehindWaitingChat() throws Exception {
+        outboundSender = createSender(message -> {
+            sentTexts.add(message.getText());
+            return message.getChatId().equals("1")
+                    ? CompletableFuture.failedFuture(tooManyRequests("{\"retry_after\":30}"))
+                    : CompletableFuture.completedFuture(new Message());
+        });
+        outboundSender.send(message("1", "a1"));
+        awaitUntil(() -> sentTexts.contains("a1"));
+        for (int i = 0; i < 10; i++) {
+            outboundSender.send(message("1", "a" + (i + 2)));
+        }
+
+        outboundSender.send(message("2", "b1")).get(1, TimeUnit.SECONDS);
+        assertEquals(List.of("a1", "b1"), sentTexts);
+    }
+
+    @Test
+    @DisplayName("OutboundSender send when messages go to one chat sends the next one only after the previous is answered")
+    public void shouldSendMessagesOfChatOneByOne() {
+        List<CompletableFuture<Message>> answers = new CopyOnWriteArrayList<>();
+        outboundSender = createSender(message -> {
+            sentTexts.add(message.getText());
+            CompletableFuture<Message> answer = new CompletableFuture<>();
+            answers.add(answer);
+            return answer;
+        });
+        outboundSender.send(message("1", "first"));
+        outboundSender.send(message("1", "second"));
+        outboundSender.send(message("1", "third"));
+
+        awaitUntil(() -> answers.size() == 1);
+        sleep(100);
+        assertEquals(List.of("first"), sentTexts);
+        answers.get(0).complete(new Message());
+        awaitUntil(() -> answers.size() == 2);
+        answers.get(1).complete(new Message());
+        awaitUntil(() -> answers.size() == 3);
+        assertEquals(List.of("first", "second", "third"), sentTexts);
+    }
+
+    @Test
+    @DisplayName("OutboundSender send when message gets 429 retries it before newer messages of the chat")
+    public void shouldRetryBeforeNewerMessages() throws Exception {
+        outboundSender = createSender(message -> {
+            boolean isFirstAttempt = !sentTexts.contains(message.getText());
+            sentTexts.add(message.getText());
+            return message.getText().equals("first") && isFirstAttempt
+                    ? CompletableFuture.failedFuture(tooManyRequests("{}"))
+                    : CompletableFuture.completedFuture(new Message());
+        });
+        CompletableFuture<Message> first = outboundSender.send(message("1", "first"));
+        CompletableFuture<Message> second = outboundSender.send(message("1", "second"));
+
+        // the chat refills from empty after the wait, so the next message waits one more token of the chat
+        second.get(3, TimeUnit.SECONDS);
+        assertTrue(first.isDone());
+        assertEquals(List.of("first", "first", "second"), sentTexts);
+    }
+
+    private OutboundSender createSender(Function<SendMessage, CompletableFuture<Message>> api) {
+        OutboundSender sender = new OutboundSender(api, new MockMetricsRegistrar(), CONFIG);
+        sender.start();
+        return sender;
+    }
+
+    private SendMessage message(String chatId, String text) {
+        return SendMessage.builder().chatId(chatId).text(text).build();
+    }
+
+    private TelegramApiRequestException tooManyRequests(String parameters) {
+        return new TelegramApiRequestException("Error sending message", new JSONObject("{\"ok\":false,\"error_code\":429," +
+                "\"description\":\"Too Many Requests\",\"parameters\":" + parameters + "}"));
+    }
+
+    private void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition was not met in time");
+            sleep(10);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package space.delusive.tversu.component;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.component.RenderedResponseCache.Key;
+import space.delusive.tversu.component.RenderedResponseCache.View;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.TimetableChangedEvent;
+import space.delusive.tversu.dto.WeekSign;
+import space.delusive.tversu.exception.SoldisWhatTheFuckException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RenderedResponseCacheTest {
+    private static final LocalDate MONDAY = LocalDate.of(2021, 1, 4);
+    private static final Key KEY = new Key("ФПМК", "22", 1, WeekSign.PLUS, DayOfWeek.MONDAY, View.TODAY);
+    private static final List<Cell> CELLS = List.of(new Cell());
+
+    private final RenderedResponseCache cache = new RenderedResponseCache(new MockMetricsRegistrar());
+
+    @Test
+    @DisplayName("RenderedResponseCache get when text is rendered today returns it without rendering")
+    public void shouldReturnRenderedText() throws SoldisWhatTheFuckException {
+        cache.get(KEY, CELLS, MONDAY, () -> "first");
+
+        assertEquals("first", cache.get(KEY, CELLS, MONDAY, () -> "second"));
+    }
+
+    @Test
+    @DisplayName("RenderedResponseCache get when timetable of the group is changed renders text again")
+    public void shouldRenderAgainWhenTimetableChanged() throws SoldisWhatTheFuckException {
+        cache.get(KEY, CELLS, MONDAY, () -> "first");
+        cache.onTimetableChanged(new TimetableChangedEvent("ФПМК", "22", List.of(), List.of()));
+
+        assertEquals("second", cache.get(KEY, CELLS, MONDAY, () -> "second"));
+    }
+
+    @Test
+    @DisplayName("RenderedResponseCache get when text was rendered of other cells renders text again")
+    public void shouldRenderAgainForOtherCells() throws SoldisWhatTheFuckException {
+        cache.get(KEY, CELLS, MONDAY, () -> "first");
+
+        assertEquals("second", cache.get(KEY, List.of(new Cell()), MONDAY, () -> "second"));
+    }
+
+    @Test
+    @DisplayName("RenderedResponseCache get when next day begins renders text again")
+    public void shouldRenderAgainOnNextDay() throws SoldisWhatTheFuckException {
+        cache.get(KEY, CELLS, MONDAY, () -> "first");
+
+        assertEquals("second", cache.get(KEY, CELLS, MONDAY.plusDays(1), () -> "second"));
+        assertEquals("third", cache.get(KEY, CELLS, MONDAY, () -> "third"));
+    }
+}
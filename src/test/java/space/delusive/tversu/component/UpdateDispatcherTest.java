@@ -0,0 +1,97 @@
+package space.delusive.tversu.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.manager.MapDataManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpdateDispatcherTest {
+    private static final int LANES = 4;
+    private static final int USERS = 8;
+    private static final int UPDATES_PER_USER = 50;
+
+    private final UpdateDispatcher dispatcher = new UpdateDispatcher(new MockMetricsRegistrar(),
+            new MapDataManager("updates.lanes", LANES, "updates.lane.queue.size", 16));
+
+    @AfterEach
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("UpdateDispatcher dispatch when users are spread over lanes handles updates of every user one by one in order")
+    public void shouldHandleUpdatesOfUserInOrder() throws Exception {
+        dispatcher.start();
+        Map<Long, List<Integer>> handledUpdates = new ConcurrentHashMap<>();
+        Map<Long, AtomicInteger> runningUpdates = new ConcurrentHashMap<>();
+        List<Long> concurrentUsers = new CopyOnWriteArrayList<>();
+        CountDownLatch handled = new CountDownLatch(USERS * UPDATES_PER_USER);
+        for (int update = 0; update < UPDATES_PER_USER; update++) {
+            for (long userId = 1; userId <= USERS; userId++) {
+                long user = userId;
+                int number = update;
+                dispatcher.dispatch(user, () -> {
+                    if (runningUpdates.computeIfAbsent(user, key -> new AtomicInteger()).incrementAndGet() > 1) {
+                        concurrentUsers.add(user);
+                    }
+                    handledUpdates.computeIfAbsent(user, key -> new CopyOnWriteArrayList<>()).add(number);
+                    runningUpdates.get(user).decrementAndGet();
+                    handled.countDown();
+                });
+            }
+        }
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertTrue(concurrentUsers.isEmpty());
+        List<Integer> expectedOrder = new ArrayList<>();
+        for (int update = 0; update < UPDATES_PER_USER; update++) {
+            expectedOrder.add(update);
+        }
+        for (long userId = 1; userId <= USERS; userId++) {
+            assertEquals(expectedOrder, handledUpdates.get(userId));
+        }
+    }
+
+    @Test
+    @DisplayName("UpdateDispatcher dispatch when update of one user is slow handles users of other lanes meanwhile")
+    public void shouldNotHoldOtherLanesBehindSlowUpdate() throws Exception {
+        dispatcher.start();
+        CountDownLatch slowUpdateReleased = new CountDownLatch(1);
+        CountDownLatch otherUserHandled = new CountDownLatch(1);
+        dispatcher.dispatch(1, () -> {
+            try {
+                slowUpdateReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(2, otherUserHandled::countDown);
+
+        assertTrue(otherUserHandled.await(1, TimeUnit.SECONDS));
+        slowUpdateReleased.countDown();
+    }
+
+    @Test
+    @DisplayName("UpdateDispatcher dispatch when handler fails keeps handling next updates of the lane")
+    public void shouldKeepLaneAliveAfterFailure() throws Exception {
+        dispatcher.start();
+        CountDownLatch nextUpdateHandled = new CountDownLatch(1);
+        dispatcher.dispatch(1, () -> {
+            throw new IllegalStateException("Handler failed");
+        });
+        dispatcher.dispatch(1, nextUpdateHandled::countDown);
+
+        assertTrue(nextUpdateHandled.await(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,47 @@
+package space.delusive.tversu.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FacultyCatalogTest {
+    private final FacultyCatalog catalog = FacultyCatalog.of(List.of(
+            new Group("bachelor", "21", 2, 1),
+            new Group("bachelor", "22", 0, 1),
+            new Group("bachelor", "21", 3, 1),
+            new Group("bachelor", "31", 0, 2),
+            new Group("master", "11", 0, 1)
+    ));
+
+    @Test
+    @DisplayName("FacultyCatalog getPrograms returns every program only once")
+    public void shouldReturnDistinctPrograms() {
+        assertEquals(Set.of("bachelor", "master"), catalog.getPrograms());
+    }
+
+    @Test
+    @DisplayName("FacultyCatalog getGroups returns groups of specified program and course only")
+    public void shouldReturnGroupsOfCourse() {
+        assertEquals(Set.of("21", "22"), catalog.getGroups("bachelor", 1));
+        assertEquals(Set.of(1, 2), catalog.getCourses("bachelor"));
+    }
+
+    @Test
+    @DisplayName("FacultyCatalog getSubgroupsCount when group is listed twice returns the biggest count")
+    public void shouldReturnMaxSubgroupsCount() {
+        assertEquals(3, catalog.getSubgroupsCount("bachelor", 1, "21"));
+    }
+
+    @Test
+    @DisplayName("FacultyCatalog when unknown program is requested returns empty results")
+    public void shouldReturnEmptyResultsForUnknownProgram() {
+        assertTrue(catalog.getCourses("phd").isEmpty());
+        assertTrue(catalog.getGroups("phd", 1).isEmpty());
+        assertEquals(0, catalog.getSubgroupsCount("phd", 1, "21"));
+    }
+}
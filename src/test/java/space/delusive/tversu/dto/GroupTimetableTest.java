@@ -0,0 +1,90 @@
+package space.delusive.tversu.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class GroupTimetableTest {
+    private final GroupTimetable timetable = GroupTimetable.of(List.of(
+            createCell("Матан", WeekSign.ANY, 0, "Иванов Иван Иванович", "1|234"),
+            createCell("Физра", WeekSign.PLUS, 1, null, null),
+            createCell("Алгебра", WeekSign.MINUS, 2, null, null)));
+
+    @Test
+    @DisplayName("GroupTimetable getLessons returns lessons of the subgroup and of the whole group")
+    public void shouldReturnLessonsOfSubgroupAndWholeGroup() {
+        assertEquals(List.of("Матан", "Физра"), getSubjects(timetable.getLessons(1, WeekSign.PLUS)));
+        assertEquals(List.of("Матан"), getSubjects(timetable.getLessons(1, WeekSign.MINUS)));
+        assertEquals(List.of("Матан", "Алгебра"), getSubjects(timetable.getLessons(2, WeekSign.MINUS)));
+    }
+
+    @Test
+    @DisplayName("GroupTimetable getLessons when subgroup has no own lessons returns lessons of the whole group")
+    public void shouldReturnWholeGroupLessonsOfUnknownSubgroup() {
+        assertEquals(List.of("Матан"), getSubjects(timetable.getLessons(3, WeekSign.PLUS)));
+        assertEquals(List.of("Матан"), getSubjects(timetable.getLessons(0, WeekSign.MINUS)));
+    }
+
+    @Test
+    @DisplayName("GroupTimetable of when lesson of every week is not merged shares it between both weeks")
+    public void shouldShareLessonOfEveryWeek() {
+        assertSame(timetable.getLessons(0, WeekSign.PLUS).get(0), timetable.getLessons(0, WeekSign.MINUS).get(0));
+    }
+
+    @Test
+    @DisplayName("GroupTimetable of when cells of one subject go at the same time merges them only in compatible weeks")
+    public void shouldMergeSimilarCells() {
+        GroupTimetable mergedTimetable = GroupTimetable.of(List.of(
+                createCell("Матан", WeekSign.ANY, 0, "Иванов Иван Иванович", "1|234"),
+                createCell("Матан", WeekSign.PLUS, 0, "Петров Пётр Петрович", "1|234, 3|101"),
+                createCell("Матан", WeekSign.ANY, 0, "Иванов Иван Иванович", "1|234")));
+
+        Lesson plusWeekLesson = mergedTimetable.getLessons(0, WeekSign.PLUS).get(0);
+        Lesson minusWeekLesson = mergedTimetable.getLessons(0, WeekSign.MINUS).get(0);
+
+        assertEquals(1, mergedTimetable.getLessons(0, WeekSign.PLUS).size());
+        assertEquals(List.of("Иванов Иван Иванович", "Петров Пётр Петрович"), plusWeekLesson.getTeachers().stream()
+                .map(Lesson.Teacher::getName)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("1|234", "3|101"), plusWeekLesson.getAuditoryAddresses());
+        assertEquals(1, minusWeekLesson.getTeachers().size());
+        assertEquals(List.of("1|234"), minusWeekLesson.getAuditoryAddresses());
+    }
+
+    @Test
+    @DisplayName("GroupTimetable of when cell has no day or week sign skips it")
+    public void shouldSkipCellsWithoutDayOrWeekSign() {
+        Cell cellWithoutDay = createCell("Физра", WeekSign.ANY, 0, null, null);
+        cellWithoutDay.setDayOfWeek(null);
+        Cell cellWithoutWeekSign = createCell("Алгебра", null, 0, null, null);
+        GroupTimetable brokenTimetable = GroupTimetable.of(List.of(
+                createCell("Матан", WeekSign.ANY, 0, "Иванов Иван Иванович", "1|234"),
+                cellWithoutDay,
+                cellWithoutWeekSign));
+
+        assertEquals(List.of("Матан"), getSubjects(brokenTimetable.getLessons(0, WeekSign.PLUS)));
+        assertEquals(List.of("Матан"), getSubjects(brokenTimetable.getLessons(0, WeekSign.MINUS)));
+    }
+
+    private List<String> getSubjects(List<Lesson> lessons) {
+        return lessons.stream().map(Lesson::getFullSubjectName).collect(Collectors.toList());
+    }
+
+    private Cell createCell(String subject, WeekSign weekSign, int subgroup, String teacherName, String auditoryAddress) {
+        Cell cell = new Cell();
+        cell.setFullSubjectName(subject);
+        cell.setWeekSign(weekSign);
+        cell.setSubgroup((byte) subgroup);
+        cell.setDayOfWeek(DayOfWeek.MONDAY);
+        cell.setStart("08:30");
+        cell.setEnd("10:05");
+        cell.setTeacherName(teacherName);
+        cell.setAuditoryAddress(auditoryAddress);
+        return cell;
+    }
+}
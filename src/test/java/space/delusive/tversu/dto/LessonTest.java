@@ -0,0 +1,49 @@
+package space.delusive.tversu.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LessonTest {
+    @Test
+    @DisplayName("Lesson toShortString when there are several teachers and auditories lists all of them")
+    public void shouldListTeachersAndAuditories() {
+        Lesson lesson = new Lesson(WeekSign.ANY, "Математический анализ", "Матан",
+                List.of(new Lesson.Teacher("Иванов Иван Иванович", "доцент"), new Lesson.Teacher("Петров", null)),
+                DayOfWeek.MONDAY, (byte) 0, (short) 510, (short) 605, List.of("1|234", "3|101"), (byte) 0, false);
+
+        String text = lesson.toShortString();
+
+        assertTrue(text.contains("Иванов И. И., Петров"));
+        assertTrue(text.contains("Ауд. 234, корп. 1; ауд. 101, корп. 3"));
+        assertTrue(lesson.toLongString().contains("Иванов Иван Иванович (доцент), Петров\n"));
+    }
+
+    @Test
+    @DisplayName("Lesson toString when teachers and auditories are unknown says they are not specified")
+    public void shouldSayNotSpecified() {
+        Lesson lesson = new Lesson(WeekSign.ANY, "Матан", "Матан", List.of(), DayOfWeek.MONDAY, (byte) 1,
+                (short) 615, (short) 710, List.of(), (byte) 0, true);
+
+        assertEquals("2️⃣ *Матан*\n" +
+                "⏳ С 10:15 до 11:50\n" +
+                "👨‍🏫 не указан\n" +
+                "📍 не указана\n" +
+                "🤲 С другой группой", lesson.toString());
+    }
+
+    @Test
+    @DisplayName("Lesson getDayOfWeek and getWeekSign return values the lesson was created with")
+    public void shouldDecodeDayAndWeekSign() {
+        Lesson lesson = new Lesson(WeekSign.MINUS, "Матан", "Матан", List.of(), DayOfWeek.SATURDAY, (byte) 1,
+                (short) 615, (short) 710, List.of(), (byte) 2, false);
+
+        assertEquals(DayOfWeek.SATURDAY, lesson.getDayOfWeek());
+        assertEquals(WeekSign.MINUS, lesson.getWeekSign());
+        assertEquals(2, lesson.getSubgroup());
+    }
+}
@@ -0,0 +1,31 @@
+package space.delusive.tversu.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeContextTest {
+    @Test
+    @DisplayName("TimeContext of returns day, minute and week of the time")
+    public void shouldCaptureDayMinuteAndWeek() {
+        TimeContext time = TimeContext.of(LocalDateTime.of(2021, 1, 3, 8, 30), WeekSign.MINUS);
+
+        assertEquals(DayOfWeek.SUNDAY, time.getDayOfWeek());
+        assertEquals(510, time.getMinuteOfDay());
+        assertEquals(202053, time.getIsoWeek());
+        assertEquals(WeekSign.PLUS, time.getNextWeekSign());
+        assertEquals(Timeline.MINUTES_PER_WEEK + 6 * Timeline.MINUTES_PER_DAY + 510, time.getMinuteOfFortnight());
+    }
+
+    @Test
+    @DisplayName("TimeContext isBeginningOfDay returns true only before six o'clock")
+    public void shouldTellBeginningOfDay() {
+        assertTrue(TimeContext.of(LocalDateTime.of(2021, 1, 4, 5, 59), WeekSign.PLUS).isBeginningOfDay());
+        assertFalse(TimeContext.of(LocalDateTime.of(2021, 1, 4, 6, 0), WeekSign.PLUS).isBeginningOfDay());
+    }
+}
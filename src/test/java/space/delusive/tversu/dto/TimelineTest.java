@@ -0,0 +1,75 @@
+package space.delusive.tversu.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.util.DateUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimelineTest {
+    private final Lesson mondayFirst = createLesson(DayOfWeek.MONDAY, "08:30", "10:05");
+    private final Lesson mondaySecond = createLesson(DayOfWeek.MONDAY, "10:15", "11:50");
+    private final Lesson fridayMinusWeek = createLesson(DayOfWeek.FRIDAY, "13:30", "15:05");
+    private final Timeline timeline = Timeline.of(List.of(mondaySecond, mondayFirst), List.of(mondayFirst, fridayMinusWeek));
+
+    @Test
+    @DisplayName("Timeline getCurrent when lesson goes returns it")
+    public void shouldReturnCurrentLesson() {
+        assertEquals(List.of(mondaySecond), timeline.getCurrent(at(WeekSign.PLUS, DayOfWeek.MONDAY, "11:50")));
+        assertTrue(timeline.getCurrent(at(WeekSign.PLUS, DayOfWeek.MONDAY, "10:10")).isEmpty());
+        assertTrue(timeline.getCurrent(at(WeekSign.PLUS, DayOfWeek.MONDAY, "08:00")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Timeline getNext when no more lessons today returns lesson of the next days and weeks")
+    public void shouldReturnNextLessonAcrossDaysAndWeeks() {
+        assertEquals(List.of(mondaySecond), timeline.getNext(at(WeekSign.PLUS, DayOfWeek.MONDAY, "08:30")));
+        assertEquals(List.of(mondayFirst), timeline.getNext(at(WeekSign.PLUS, DayOfWeek.MONDAY, "12:00")));
+        assertEquals(List.of(fridayMinusWeek), timeline.getNext(at(WeekSign.MINUS, DayOfWeek.MONDAY, "12:00")));
+        assertEquals(List.of(mondayFirst), timeline.getNext(at(WeekSign.MINUS, DayOfWeek.SUNDAY, "12:00")));
+    }
+
+    @Test
+    @DisplayName("Timeline isNextOnSameDay when next lesson starts later today returns true")
+    public void shouldTellNextLessonIsToday() {
+        assertTrue(timeline.isNextOnSameDay(at(WeekSign.PLUS, DayOfWeek.MONDAY, "09:00")));
+        assertFalse(timeline.isNextOnSameDay(at(WeekSign.PLUS, DayOfWeek.MONDAY, "12:00")));
+    }
+
+    @Test
+    @DisplayName("Timeline isNextOnSameDay when next lesson is on the same day of the next week or fortnight returns false")
+    public void shouldNotTellLessonOfNextWeekIsToday() {
+        Lesson mondayOnly = createLesson(DayOfWeek.MONDAY, "10:15", "11:50");
+        Timeline everyWeek = Timeline.of(List.of(mondayOnly), List.of(mondayOnly));
+        Timeline plusWeekOnly = Timeline.of(List.of(mondayOnly), List.of());
+
+        assertEquals(List.of(mondayOnly), everyWeek.getNext(at(WeekSign.PLUS, DayOfWeek.MONDAY, "12:00")));
+        assertFalse(everyWeek.isNextOnSameDay(at(WeekSign.PLUS, DayOfWeek.MONDAY, "12:00")));
+        assertFalse(everyWeek.isNextOnSameDay(at(WeekSign.MINUS, DayOfWeek.MONDAY, "12:00")));
+        assertFalse(plusWeekOnly.isNextOnSameDay(at(WeekSign.PLUS, DayOfWeek.MONDAY, "12:00")));
+        assertTrue(plusWeekOnly.isNextOnSameDay(at(WeekSign.PLUS, DayOfWeek.MONDAY, "09:00")));
+        assertFalse(plusWeekOnly.isNextOnSameDay(at(WeekSign.MINUS, DayOfWeek.MONDAY, "09:00")));
+    }
+
+    @Test
+    @DisplayName("Timeline getBetween returns lessons of the range sorted by start")
+    public void shouldReturnLessonsBetween() {
+        int weekStart = Timeline.getMinuteOfFortnight(WeekSign.MINUS, DayOfWeek.MONDAY, 0);
+
+        assertEquals(List.of(mondayFirst, fridayMinusWeek), timeline.getBetween(weekStart, weekStart + Timeline.MINUTES_PER_WEEK));
+        assertEquals(List.of(mondayFirst, mondaySecond), timeline.getBetween(0, Timeline.MINUTES_PER_DAY));
+    }
+
+    private int at(WeekSign weekSign, DayOfWeek dayOfWeek, String time) {
+        return Timeline.getMinuteOfFortnight(weekSign, dayOfWeek, DateUtils.parseMinuteOfDay(time));
+    }
+
+    private Lesson createLesson(DayOfWeek dayOfWeek, String start, String end) {
+        return new Lesson(WeekSign.ANY, "Матан", "Матан", List.of(), dayOfWeek, (byte) 0,
+                DateUtils.parseMinuteOfDay(start), DateUtils.parseMinuteOfDay(end), List.of(), (byte) 0, false);
+    }
+}
@@ -0,0 +1,64 @@
+package space.delusive.tversu.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimetableDiffTest {
+    @Test
+    @DisplayName("TimetableDiff of when versions have equal lessons returns empty diff")
+    public void shouldReturnEmptyDiffOfEqualVersions() {
+        List<Cell> oldCells = List.of(createCell("Матан", DayOfWeek.MONDAY, 0, 0), createCell("Физра", DayOfWeek.FRIDAY, 3, 1));
+        List<Cell> newCells = List.of(createCell("Физра", DayOfWeek.FRIDAY, 3, 1), createCell("Матан", DayOfWeek.MONDAY, 0, 0));
+
+        assertTrue(TimetableDiff.of(oldCells, newCells).isEmpty());
+    }
+
+    @Test
+    @DisplayName("TimetableDiff of when lessons were added, removed and moved returns each of them")
+    public void shouldReturnAddedRemovedAndMovedLessons() {
+        Cell removed = createCell("Матан", DayOfWeek.MONDAY, 0, 0);
+        Cell movedFrom = createCell("Физра", DayOfWeek.FRIDAY, 3, 1);
+        Cell movedTo = createCell("Физра", DayOfWeek.THURSDAY, 2, 1);
+        Cell added = createCell("Алгебра", DayOfWeek.TUESDAY, 1, 2);
+
+        TimetableDiff diff = TimetableDiff.of(List.of(removed, movedFrom), List.of(movedTo, added));
+
+        assertEquals(List.of(added), diff.getAdded());
+        assertEquals(List.of(removed), diff.getRemoved());
+        assertEquals(1, diff.getMoved().size());
+        assertSame(movedFrom, diff.getMoved().get(0).getFrom());
+        assertSame(movedTo, diff.getMoved().get(0).getTo());
+    }
+
+    @Test
+    @DisplayName("TimetableDiff ofSubgroup returns changes of the subgroup and of the whole group only")
+    public void shouldReturnChangesOfSubgroup() {
+        Cell wholeGroup = createCell("Матан", DayOfWeek.MONDAY, 0, 0);
+        Cell firstSubgroup = createCell("Физра", DayOfWeek.FRIDAY, 3, 1);
+        Cell secondSubgroup = createCell("Алгебра", DayOfWeek.TUESDAY, 1, 2);
+
+        TimetableDiff diff = TimetableDiff.of(List.of(), List.of(wholeGroup, firstSubgroup, secondSubgroup)).ofSubgroup(2);
+
+        assertEquals(List.of(wholeGroup, secondSubgroup), diff.getAdded());
+        assertTrue(TimetableDiff.of(List.of(firstSubgroup), List.of()).ofSubgroup(2).isEmpty());
+    }
+
+    private Cell createCell(String subject, DayOfWeek dayOfWeek, int columnPosition, int subgroup) {
+        Cell cell = new Cell();
+        cell.setFullSubjectName(subject);
+        cell.setShortSubjectName(subject);
+        cell.setWeekSign(WeekSign.ANY);
+        cell.setDayOfWeek(dayOfWeek);
+        cell.setColumnPosition((byte) columnPosition);
+        cell.setSubgroup((byte) subgroup);
+        cell.setStart("08:30");
+        cell.setEnd("10:05");
+        return cell;
+    }
+}
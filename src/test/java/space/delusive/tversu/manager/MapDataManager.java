@@ -0,0 +1,38 @@
+package space.delusive.tversu.manager;
+
+import space.delusive.tversu.util.MessageTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for tests, given as pairs of keys and values
+ */
+public class MapDataManager implements DataManager {
+    private final Map<String, String> values = new HashMap<>();
+
+    public MapDataManager(Object... keysAndValues) {
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            values.put(keysAndValues[i].toString(), keysAndValues[i + 1].toString());
+        }
+    }
+
+    @Override
+    public String getString(String paramName) {
+        String value = values.get(paramName);
+        if (value == null) {
+            throw new IllegalArgumentException("No test value for \"" + paramName + "\"");
+        }
+        return value;
+    }
+
+    @Override
+    public int getInt(String paramName) {
+        return Integer.parseInt(getString(paramName));
+    }
+
+    @Override
+    public MessageTemplate getTemplate(String paramName) {
+        return MessageTemplate.compile(getString(paramName));
+    }
+}
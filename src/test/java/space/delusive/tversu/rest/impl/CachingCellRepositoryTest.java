@@ -0,0 +1,150 @@
+package space.delusive.tversu.rest.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.component.MockMetricsRegistrar;
+import space.delusive.tversu.dto.CachedCells;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.TimetableChangedEvent;
+import space.delusive.tversu.dto.TimetableEvictedEvent;
+import space.delusive.tversu.exception.SoldisWhatTheFuckException;
+import space.delusive.tversu.manager.MapDataManager;
+import space.delusive.tversu.rest.CellRepository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingCellRepositoryTest {
+    private static final String FACULTY = "math";
+    private static final long EXPIRED_LOAD_TIME = 0;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private CachingCellRepository repository;
+
+    @AfterEach
+    public void shutdown() {
+        repository.shutdown();
+    }
+
+    @Test
+    @DisplayName("CachingCellRepository getCells when entry is expired returns it and refreshes it once in background")
+    public void shouldServeStaleEntryAndRefreshItOnce() throws Exception {
+        List<Cell> freshCells = List.of(createCell("Algebra"));
+        CountDownLatch upstreamReleased = new CountDownLatch(1);
+        repository = createRepository(2, (faculty, group) -> {
+            upstreamCalls.incrementAndGet();
+            awaitQuietly(upstreamReleased);
+            return freshCells;
+        });
+        List<Cell> staleCells = List.of(createCell("Geometry"));
+        repository.restore(List.of(new CachedCells(FACULTY, "21", staleCells, EXPIRED_LOAD_TIME)));
+
+        assertSame(staleCells, repository.getCells(FACULTY, "21"));
+        assertSame(staleCells, repository.getCells(FACULTY, "21"));
+        awaitUntil(() -> upstreamCalls.get() == 1);
+        upstreamReleased.countDown();
+
+        awaitUntil(() -> getCellsQuietly("21") == freshCells);
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("CachingCellRepository getCells when refresh fails keeps the stale entry and marks it outdated")
+    public void shouldMarkStaleEntryOutdatedWhenRefreshFails() throws Exception {
+        repository = createRepository(2, (faculty, group) -> {
+            throw new IllegalStateException("Upstream is down");
+        });
+        List<Cell> staleCells = List.of(createCell("Geometry"));
+        repository.restore(List.of(new CachedCells(FACULTY, "21", staleCells, EXPIRED_LOAD_TIME)));
+        assertFalse(repository.isOutdated(FACULTY, "21"));
+
+        assertSame(staleCells, repository.getCells(FACULTY, "21"));
+
+        awaitUntil(() -> repository.isOutdated(FACULTY, "21"));
+        assertSame(staleCells, repository.getCells(FACULTY, "21"));
+    }
+
+    @Test
+    @DisplayName("CachingCellRepository getCells when cache is full evicts the least recently used group and publishes it")
+    public void shouldEvictLeastRecentlyUsedGroup() throws Exception {
+        repository = createRepository(2, (faculty, group) -> {
+            upstreamCalls.incrementAndGet();
+            return List.of(createCell(group));
+        });
+        long now = System.currentTimeMillis();
+        repository.restore(List.of(
+                new CachedCells(FACULTY, "21", List.of(createCell("21")), now - 2000),
+                new CachedCells(FACULTY, "22", List.of(createCell("22")), now - 1000)));
+
+        repository.getCells(FACULTY, "23");
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(List.of(new TimetableEvictedEvent(FACULTY, "21")), events);
+        repository.getCells(FACULTY, "22");
+        assertEquals(1, upstreamCalls.get());
+        repository.getCells(FACULTY, "21");
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("CachingCellRepository refresh when upstream returns the same list does not publish TimetableChangedEvent")
+    public void shouldPublishEventOnlyWhenCellsChange() throws Exception {
+        List<Cell> cells = List.of(createCell("Algebra"));
+        List<List<Cell>> versions = new CopyOnWriteArrayList<>(List.of(cells, cells, List.of(createCell("Geometry"))));
+        repository = createRepository(2, (faculty, group) -> versions.remove(0));
+
+        repository.refresh(FACULTY, "21");
+        repository.refresh(FACULTY, "21");
+        assertTrue(events.isEmpty());
+
+        repository.refresh(FACULTY, "21");
+        assertEquals(1, events.size());
+        TimetableChangedEvent event = (TimetableChangedEvent) events.get(0);
+        assertEquals("21", event.getGroup());
+    }
+
+    private CachingCellRepository createRepository(int maxSize, CellRepository upstream) {
+        MapDataManager config = new MapDataManager(
+                "cache.cells.ttl.minutes", 60,
+                "cache.cells.max.size", maxSize,
+                "cache.cells.refresh.threads", 1);
+        return new CachingCellRepository(upstream, config, new MockMetricsRegistrar(), events::add);
+    }
+
+    private Cell createCell(String subject) {
+        Cell cell = new Cell();
+        cell.setFullSubjectName(subject);
+        return cell;
+    }
+
+    private List<Cell> getCellsQuietly(String group) {
+        try {
+            return repository.getCells(FACULTY, group);
+        } catch (SoldisWhatTheFuckException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition was not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package space.delusive.tversu.rest.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    private static final long FAST_CALL_NANOS = 1_000_000;
+    private static final long SLOW_CALL_NANOS = 2_000_000_000;
+
+    @Test
+    @DisplayName("CircuitBreaker when failures in a row reach the threshold opens")
+    public void shouldOpenAfterConsecutiveFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 1000, 60_000);
+        circuitBreaker.onResult(false, FAST_CALL_NANOS);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        circuitBreaker.onResult(false, FAST_CALL_NANOS);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("CircuitBreaker when calls are too slow treats them as failed")
+    public void shouldOpenAfterSlowCalls() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 1000, 60_000);
+        circuitBreaker.onResult(true, SLOW_CALL_NANOS);
+        circuitBreaker.onResult(true, SLOW_CALL_NANOS);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("CircuitBreaker when success happens between failures stays closed")
+    public void shouldResetFailuresOnSuccess() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 1000, 60_000);
+        circuitBreaker.onResult(false, FAST_CALL_NANOS);
+        circuitBreaker.onResult(true, FAST_CALL_NANOS);
+        circuitBreaker.onResult(false, FAST_CALL_NANOS);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("CircuitBreaker when open interval passed lets only one probe through and closes on its success")
+    public void shouldProbeOnceWhenHalfOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 1000, 0);
+        circuitBreaker.onResult(false, FAST_CALL_NANOS);
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(true, FAST_CALL_NANOS);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("CircuitBreaker when probe fails opens again")
+    public void shouldReopenWhenProbeFails() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, 1000, 0);
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onResult(false, FAST_CALL_NANOS);
+        }
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(false, FAST_CALL_NANOS);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+}
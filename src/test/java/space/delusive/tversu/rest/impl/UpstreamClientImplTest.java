@@ -0,0 +1,105 @@
+package space.delusive.tversu.rest.impl;
+
+import kong.unirest.GetRequest;
+import kong.unirest.HttpResponse;
+import kong.unirest.RawResponse;
+import kong.unirest.UnirestInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.component.MockMetricsRegistrar;
+import space.delusive.tversu.exception.FailureRequestException;
+import space.delusive.tversu.manager.MapDataManager;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamClientImplTest {
+    private static final String ENDPOINT = "groups";
+    private static final Function<RawResponse, String> NOT_CALLED_READER = response -> {
+        throw new AssertionError("Body must not be read");
+    };
+
+    private final List<CompletableFuture<HttpResponse<String>>> networkCalls = new CopyOnWriteArrayList<>();
+    private UpstreamClientImpl upstreamClient;
+
+    @AfterEach
+    public void shutdown() {
+        upstreamClient.shutdown();
+    }
+
+    @Test
+    @DisplayName("UpstreamClientImpl getAsync when endpoint is busy and its queue is full rejects the request without a network call")
+    public void shouldRejectRequestWhenQueueIsFull() {
+        upstreamClient = createClient(10_000);
+        CompletableFuture<HttpResponse<String>> running = upstreamClient.getAsync(ENDPOINT, this::request, NOT_CALLED_READER);
+        CompletableFuture<HttpResponse<String>> queued = upstreamClient.getAsync(ENDPOINT, this::request, NOT_CALLED_READER);
+        CompletableFuture<HttpResponse<String>> rejected = upstreamClient.getAsync(ENDPOINT, this::request, NOT_CALLED_READER);
+
+        assertEquals(1, networkCalls.size());
+        assertFalse(running.isDone());
+        assertFalse(queued.isDone());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(0, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof FailureRequestException);
+    }
+
+    @Test
+    @DisplayName("UpstreamClientImpl getAsync when endpoint does not answer in time fails with FailureRequestException")
+    public void shouldFailRequestOnTimeout() {
+        upstreamClient = createClient(100);
+        CompletableFuture<HttpResponse<String>> response = upstreamClient.getAsync(ENDPOINT, this::request, NOT_CALLED_READER);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(2, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof FailureRequestException);
+        assertEquals(1, networkCalls.size());
+    }
+
+    @Test
+    @DisplayName("UpstreamClientImpl getAsync when queued request timed out does not send it after the slot is free")
+    public void shouldSkipQueuedRequestThatTimedOut() throws Exception {
+        upstreamClient = createClient(100);
+        upstreamClient.getAsync(ENDPOINT, this::request, NOT_CALLED_READER);
+        CompletableFuture<HttpResponse<String>> queued = upstreamClient.getAsync(ENDPOINT, this::request, NOT_CALLED_READER);
+        assertThrows(ExecutionException.class, () -> queued.get(2, TimeUnit.SECONDS));
+
+        networkCalls.get(0).completeExceptionally(new IllegalStateException("Connection reset"));
+        assertEquals(1, networkCalls.size());
+    }
+
+    private UpstreamClientImpl createClient(int requestTimeoutMillis) {
+        return new UpstreamClientImpl(new MapDataManager(
+                "upstream.request.timeout.ms", requestTimeoutMillis,
+                "upstream.bulkhead.queue.size", 1,
+                "upstream.bulkhead." + ENDPOINT, 1,
+                "upstream.connect.timeout.ms", 1000,
+                "upstream.read.timeout.ms", 1000,
+                "upstream.max.connections", 10,
+                "upstream.max.connections.per.route", 10,
+                "upstream.circuit.failure.threshold", 100,
+                "upstream.circuit.slow.call.ms", 10_000,
+                "upstream.circuit.open.interval.ms", 10_000), new MockMetricsRegistrar());
+    }
+
+    /**
+     * @return request which network call never completes by itself
+     */
+    @SuppressWarnings("unchecked")
+    private GetRequest request(UnirestInstance unirest) {
+        return (GetRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{GetRequest.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("asObjectAsync")) {
+                        CompletableFuture<HttpResponse<String>> networkCall = new CompletableFuture<>();
+                        networkCalls.add(networkCall);
+                        return networkCall;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
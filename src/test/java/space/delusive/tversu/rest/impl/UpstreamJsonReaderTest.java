@@ -0,0 +1,94 @@
+package space.delusive.tversu.rest.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.Group;
+import space.delusive.tversu.dto.WeekSign;
+import space.delusive.tversu.exception.FailureRequestException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpstreamJsonReaderTest {
+    @Test
+    @DisplayName("UpstreamJsonReader readCells when cell has unknown and null fields skips them")
+    public void shouldReadCellsSkippingUnknownFields() {
+        List<Cell> cells = UpstreamJsonReader.read(toStream("[{\"weekSign\":\"PLUS\",\"fullSubjectName\":\"Математический анализ\"," +
+                "\"shortSubjectName\":\"Матан\",\"teacherName\":null,\"teacherTitle\":\"доцент\",\"dayOfWeek\":\"MONDAY\"," +
+                "\"columnPosition\":2,\"start\":\"11:30\",\"end\":\"13:05\",\"auditoryAddress\":\"1|234\",\"course\":1," +
+                "\"group\":\"21\",\"subgroup\":1,\"crossPair\":true,\"faculty\":\"ПМиК\"," +
+                "\"id\":42,\"updated\":{\"by\":\"import\",\"at\":[2020,10,31]}}]"), UpstreamJsonReader::readCells);
+
+        assertEquals(1, cells.size());
+        Cell cell = cells.get(0);
+        assertEquals(WeekSign.PLUS, cell.getWeekSign());
+        assertEquals("Математический анализ", cell.getFullSubjectName());
+        assertNull(cell.getTeacherName());
+        assertEquals(DayOfWeek.MONDAY, cell.getDayOfWeek());
+        assertEquals(2, cell.getColumnPosition());
+        assertEquals("13:05", cell.getEnd());
+        assertEquals(1, cell.getSubgroup());
+        assertTrue(cell.isCrossPair());
+        assertEquals("ПМиК", cell.getFaculty());
+    }
+
+    @Test
+    @DisplayName("UpstreamJsonReader readGroups when object has other fields returns groups only")
+    public void shouldReadGroups() {
+        List<Group> groups = UpstreamJsonReader.read(toStream("{\"total\":2,\"groups\":[" +
+                "{\"level\":\"bachelor\",\"name\":\"21\",\"subgroups\":2,\"course\":1,\"faculty\":\"ПМиК\"}," +
+                "{\"level\":\"master\",\"name\":\"11\",\"subgroups\":0,\"course\":1}]}"), UpstreamJsonReader::readGroups);
+
+        assertEquals(2, groups.size());
+        assertEquals("bachelor", groups.get(0).getLevel());
+        assertEquals(2, groups.get(0).getSubgroups());
+        assertEquals("11", groups.get(1).getName());
+    }
+
+    @Test
+    @DisplayName("UpstreamJsonReader readFacultyTable when group is listed twice returns its cells together")
+    public void shouldReadFacultyTable() {
+        Map<String, List<Cell>> table = UpstreamJsonReader.read(toStream("{\"groups\":[" +
+                "{\"level\":\"bachelor\",\"name\":\"21\",\"cells\":[{\"subgroup\":1},{\"subgroup\":2}]}," +
+                "{\"cells\":null,\"name\":\"22\"}," +
+                "{\"cells\":[{\"subgroup\":0}],\"name\":\"21\"}]}"), UpstreamJsonReader::readFacultyTable);
+
+        assertEquals(3, table.get("21").size());
+        assertEquals(0, table.get("21").get(2).getSubgroup());
+        assertTrue(table.get("22").isEmpty());
+    }
+
+    @Test
+    @DisplayName("UpstreamJsonReader readFaculties and readWeekSign return values of their fields")
+    public void shouldReadFacultiesAndWeekSign() {
+        assertEquals(List.of("ПМиК", "ИФ"), UpstreamJsonReader.read(toStream("{\"faculties\":[\"ПМиК\",\"ИФ\"]}"),
+                UpstreamJsonReader::readFaculties));
+        assertEquals(WeekSign.MINUS, UpstreamJsonReader.read(toStream("{\"day\":\"2020-10-31\",\"weekSign\":\"MINUS\"}"),
+                UpstreamJsonReader::readWeekSign));
+    }
+
+    @Test
+    @DisplayName("UpstreamJsonReader read when body is malformed throws FailureRequestException")
+    public void shouldThrowOnMalformedBody() {
+        assertThrows(FailureRequestException.class, () -> UpstreamJsonReader.read(toStream("[{\"weekSign\":"),
+                UpstreamJsonReader::readCells));
+        assertThrows(FailureRequestException.class, () -> UpstreamJsonReader.read(toStream("[{\"weekSign\":\"ZERO\"}]"),
+                UpstreamJsonReader::readCells));
+        assertFalse(UpstreamJsonReader.read(toStream("[]"), UpstreamJsonReader::readCells).iterator().hasNext());
+    }
+
+    private InputStream toStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package space.delusive.tversu.rest.impl;
+
+import kong.unirest.GetRequest;
+import kong.unirest.Headers;
+import kong.unirest.RawResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.component.MockMetricsRegistrar;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidatorStoreTest {
+    private static final String RESOURCE = "ПМиК/21";
+    private static final String FACULTIES_JSON = "{\"faculties\":[\"ПМиК\",\"ФизМат\"]}";
+    private static final UpstreamJsonReader.Parser<List<String>> NOT_CALLED_PARSER = reader -> {
+        throw new AssertionError("Body must not be parsed");
+    };
+
+    @Test
+    @DisplayName("ValidatorStore read when response is 304 returns remembered body without parsing")
+    public void shouldReturnRememberedBodyWhenNotModified() {
+        ValidatorStore<List<String>> store = new ValidatorStore<>("groups", new MockMetricsRegistrar(), 10);
+        List<String> body = store.read(RESOURCE, response(200, FACULTIES_JSON, "ETag", "\"v1\""), UpstreamJsonReader::readFaculties);
+
+        assertSame(body, store.read(RESOURCE, response(304, "", "ETag", "\"v1\""), NOT_CALLED_PARSER));
+    }
+
+    @Test
+    @DisplayName("ValidatorStore prepare when resource has validators makes request conditional")
+    public void shouldMakeRequestConditional() {
+        ValidatorStore<List<String>> store = new ValidatorStore<>("groups", new MockMetricsRegistrar(), 10);
+        store.read(RESOURCE, response(200, FACULTIES_JSON, "ETag", "\"v1\"", "Last-Modified", "Sat, 31 Oct 2020 10:00:00 GMT"),
+                UpstreamJsonReader::readFaculties);
+
+        Map<String, String> headers = new HashMap<>();
+        store.prepare(RESOURCE, request(headers));
+        assertEquals("\"v1\"", headers.get("If-None-Match"));
+        assertEquals("Sat, 31 Oct 2020 10:00:00 GMT", headers.get("If-Modified-Since"));
+    }
+
+    @Test
+    @DisplayName("ValidatorStore read when response is 2xx without validators parses it and does not remember it")
+    public void shouldNotRememberBodyWithoutValidators() {
+        ValidatorStore<List<String>> store = new ValidatorStore<>("groups", new MockMetricsRegistrar(), 10);
+        List<String> body = store.read(RESOURCE, response(200, FACULTIES_JSON), UpstreamJsonReader::readFaculties);
+        assertEquals(List.of("ПМиК", "ФизМат"), body);
+
+        Map<String, String> headers = new HashMap<>();
+        store.prepare(RESOURCE, request(headers));
+        assertTrue(headers.isEmpty());
+        assertNull(store.read(RESOURCE, response(304, ""), NOT_CALLED_PARSER));
+    }
+
+    @Test
+    @DisplayName("ValidatorStore read when response is not 2xx returns null")
+    public void shouldReturnNullWhenNotSuccessful() {
+        ValidatorStore<List<String>> store = new ValidatorStore<>("groups", new MockMetricsRegistrar(), 10);
+        assertNull(store.read(RESOURCE, response(500, "oops"), NOT_CALLED_PARSER));
+    }
+
+    @Test
+    @DisplayName("ValidatorStore read when more resources than the limit are remembered forgets the least recently used")
+    public void shouldForgetLeastRecentlyUsedResource() {
+        ValidatorStore<List<String>> store = new ValidatorStore<>("groups", new MockMetricsRegistrar(), 2);
+        store.read("ПМиК/21", response(200, FACULTIES_JSON, "ETag", "\"a\""), UpstreamJsonReader::readFaculties);
+        store.read("ПМиК/22", response(200, FACULTIES_JSON, "ETag", "\"b\""), UpstreamJsonReader::readFaculties);
+        store.prepare("ПМиК/21", request(new HashMap<>()));
+        store.read("ПМиК/23", response(200, FACULTIES_JSON, "ETag", "\"c\""), UpstreamJsonReader::readFaculties);
+
+        assertNull(store.read("ПМиК/22", response(304, ""), NOT_CALLED_PARSER));
+        assertNotNull(store.read("ПМиК/21", response(304, ""), NOT_CALLED_PARSER));
+        assertNotNull(store.read("ПМиК/23", response(304, ""), NOT_CALLED_PARSER));
+    }
+
+    private RawResponse response(int status, String body, String... namesAndValues) {
+        Headers headers = new Headers();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            headers.add(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return (RawResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{RawResponse.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStatus":
+                            return status;
+                        case "getHeaders":
+                            return headers;
+                        case "getContent":
+                            return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private GetRequest request(Map<String, String> headers) {
+        return (GetRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{GetRequest.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("header")) {
+                        headers.put((String) args[0], (String) args[1]);
+                        return proxy;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
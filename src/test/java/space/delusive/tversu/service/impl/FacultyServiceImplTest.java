@@ -0,0 +1,93 @@
+package space.delusive.tversu.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.FacultyCatalog;
+import space.delusive.tversu.dto.WeekSign;
+import space.delusive.tversu.rest.FacultyRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FacultyServiceImplTest {
+    private static final String FACULTY = "ПМиК";
+    private static final LocalDate MONDAY = LocalDate.of(2020, 11, 2);
+
+    private final WeekSignRepository repository = new WeekSignRepository();
+    private final FacultyServiceImpl facultyService = new FacultyServiceImpl(repository,
+            Clock.fixed(MONDAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC), event -> {
+    });
+
+    @Test
+    @DisplayName("FacultyServiceImpl getWeekSign when upstream fails an odd number of weeks later returns the opposite sign")
+    public void shouldFlipKnownWeekSignAfterOddNumberOfWeeks() {
+        repository.weekSign = WeekSign.PLUS;
+        facultyService.getWeekSign(FACULTY, MONDAY);
+
+        repository.weekSign = null;
+        assertEquals(WeekSign.MINUS, facultyService.getWeekSign(FACULTY, MONDAY.plusWeeks(1).plusDays(3)));
+        assertEquals(WeekSign.MINUS, facultyService.getWeekSign(FACULTY, MONDAY.plusWeeks(3)));
+    }
+
+    @Test
+    @DisplayName("FacultyServiceImpl getWeekSign when upstream fails an even number of weeks later returns the known sign")
+    public void shouldKeepKnownWeekSignAfterEvenNumberOfWeeks() {
+        repository.weekSign = WeekSign.PLUS;
+        facultyService.getWeekSign(FACULTY, MONDAY.plusDays(4));
+
+        repository.weekSign = null;
+        assertEquals(WeekSign.PLUS, facultyService.getWeekSign(FACULTY, MONDAY.plusWeeks(2)));
+    }
+
+    @Test
+    @DisplayName("FacultyServiceImpl getWeekSign when upstream fails and no sign is known throws the upstream exception")
+    public void shouldThrowWhenNoWeekSignIsKnown() {
+        assertThrows(IllegalStateException.class, () -> facultyService.getWeekSign(FACULTY, MONDAY));
+    }
+
+    @Test
+    @DisplayName("FacultyServiceImpl getWeekSign when sign of the week is known does not request it again")
+    public void shouldRequestWeekSignOncePerWeek() {
+        repository.weekSign = WeekSign.MINUS;
+        facultyService.getWeekSign(FACULTY, MONDAY);
+        facultyService.getWeekSign(FACULTY, MONDAY.plusDays(6));
+
+        assertEquals(1, repository.weekSignRequests);
+    }
+
+    private static class WeekSignRepository implements FacultyRepository {
+        private WeekSign weekSign;
+        private int weekSignRequests;
+
+        @Override
+        public List<String> getFaculties() {
+            return List.of(FACULTY);
+        }
+
+        @Override
+        public FacultyCatalog getCatalog(String faculty) {
+            return FacultyCatalog.of(List.of());
+        }
+
+        @Override
+        public WeekSign getWeekSign(String faculty, LocalDate day) {
+            weekSignRequests++;
+            if (weekSign == null) {
+                throw new IllegalStateException("Upstream is down");
+            }
+            return weekSign;
+        }
+
+        @Override
+        public Map<String, List<Cell>> getTable(String faculty) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package space.delusive.tversu.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import space.delusive.tversu.dto.CacheSnapshot;
+import space.delusive.tversu.dto.CachedCells;
+import space.delusive.tversu.dto.Cell;
+import space.delusive.tversu.dto.DayOfWeek;
+import space.delusive.tversu.dto.FacultyCatalog;
+import space.delusive.tversu.dto.Group;
+import space.delusive.tversu.dto.WeekSign;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheSnapshotCodecTest {
+
+    @Test
+    @DisplayName("CacheSnapshotCodec decode when snapshot is encoded returns the same content")
+    public void shouldDecodeEncodedSnapshot() {
+        CacheSnapshot expected = createSnapshot();
+        CacheSnapshot actual = CacheSnapshotCodec.decode(ByteBuffer.wrap(CacheSnapshotCodec.encode(expected))).orElseThrow();
+
+        assertEquals(expected.getCreatedTime(), actual.getCreatedTime());
+        assertEquals(2, actual.getCatalogs().get("math").getSubgroupsCount("bachelor", 1, "21"));
+        CachedCells timetable = actual.getTimetables().get(0);
+        assertEquals("math", timetable.getFaculty());
+        assertEquals("21", timetable.getGroup());
+        assertEquals(42L, timetable.getLoadTime());
+        Cell cell = timetable.getCells().get(0);
+        assertEquals(WeekSign.PLUS, cell.getWeekSign());
+        assertEquals(DayOfWeek.TUESDAY, cell.getDayOfWeek());
+        assertEquals("Algebra", cell.getFullSubjectName());
+        assertNull(cell.getTeacherTitle());
+        assertEquals("8:30", cell.getStart());
+        assertEquals(2, cell.getColumnPosition());
+        assertTrue(cell.isCrossPair());
+    }
+
+    @Test
+    @DisplayName("CacheSnapshotCodec encode when cell has no week sign and day of week keeps them empty")
+    public void shouldEncodeCellWithoutWeekSignAndDayOfWeek() {
+        CacheSnapshot snapshot = createSnapshot();
+        Cell cell = snapshot.getTimetables().get(0).getCells().get(0);
+        cell.setWeekSign(null);
+        cell.setDayOfWeek(null);
+
+        CacheSnapshot actual = CacheSnapshotCodec.decode(ByteBuffer.wrap(CacheSnapshotCodec.encode(snapshot))).orElseThrow();
+        Cell actualCell = actual.getTimetables().get(0).getCells().get(0);
+        assertNull(actualCell.getWeekSign());
+        assertNull(actualCell.getDayOfWeek());
+        assertEquals("Algebra", actualCell.getFullSubjectName());
+    }
+
+    @Test
+    @DisplayName("CacheSnapshotCodec decode when payload is corrupted returns empty snapshot")
+    public void shouldIgnoreCorruptedSnapshot() {
+        byte[] bytes = CacheSnapshotCodec.encode(createSnapshot());
+        bytes[bytes.length - 1] ^= 1;
+        assertTrue(CacheSnapshotCodec.decode(ByteBuffer.wrap(bytes)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("CacheSnapshotCodec decode when data is truncated returns empty snapshot")
+    public void shouldIgnoreTruncatedSnapshot() {
+        byte[] bytes = CacheSnapshotCodec.encode(createSnapshot());
+        assertTrue(CacheSnapshotCodec.decode(ByteBuffer.wrap(bytes, 0, bytes.length / 2).slice()).isEmpty());
+    }
+
+    private CacheSnapshot createSnapshot() {
+        Cell cell = new Cell();
+        cell.setWeekSign(WeekSign.PLUS);
+        cell.setDayOfWeek(DayOfWeek.TUESDAY);
+        cell.setFullSubjectName("Algebra");
+        cell.setShortSubjectName("Alg");
+        cell.setTeacherName("Ivanov Ivan Ivanovich");
+        cell.setStart("8:30");
+        cell.setEnd("10:05");
+        cell.setColumnPosition((byte) 2);
+        cell.setGroup("21");
+        cell.setFaculty("math");
+        cell.setCrossPair(true);
+        FacultyCatalog catalog = FacultyCatalog.of(List.of(new Group("bachelor", "21", 2, 1)));
+        return new CacheSnapshot(1000L, Map.of("math", catalog), List.of(new CachedCells("math", "21", List.of(cell), 42L)));
+    }
+}
@@ -3,59 +3,54 @@ package space.delusive.tversu.util;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DateUtilsTest {
 
     @Test
-    @DisplayName("DateUtils compareTime when second is after first returns 1")
-    public void shouldReturnOneIfSecondIsAfterFirst() {
-        String first = "8:30";
-        String second = "10:15";
-        int actual = DateUtils.compareTime(first, second);
-        assertEquals(1, actual);
+    @DisplayName("DateUtils parseMinuteOfDay when null throws an exception")
+    public void shouldThrowAnExceptionIfNull() {
+        assertThrows(NullPointerException.class, () -> DateUtils.parseMinuteOfDay(null));
     }
 
     @Test
-    @DisplayName("DateUtils compareTime when second = first returns 0")
-    public void shouldReturnZeroIfEqual() {
-        String first = "8:30";
-        String second = "8:30";
-        int actual = DateUtils.compareTime(first, second);
-        assertEquals(0, actual);
+    @DisplayName("DateUtils parseMinuteOfDay when no colon found throws an exception")
+    public void shouldThrowAnExceptionIfNoColonFound() {
+        assertThrows(NumberFormatException.class, () -> DateUtils.parseMinuteOfDay("no_colon_here"));
     }
 
     @Test
-    @DisplayName("DateUtils compareTime when second = first returns 0")
-    public void shouldReturnMinusOneIfFirstIsAfterSecond() {
-        String first = "15:50";
-        String second = "12:10";
-        int actual = DateUtils.compareTime(first, second);
-        assertEquals(-1, actual);
+    @DisplayName("DateUtils parseMinuteOfDay when empty string throws an exception")
+    public void shouldThrowAnExceptionIfEmptyString() {
+        assertThrows(NumberFormatException.class, () -> DateUtils.parseMinuteOfDay(""));
     }
 
     @Test
-    @DisplayName("DateUtils compareTime when null throws an exception")
-    public void shouldThrowAnExceptionIfNull() {
-        assertThrows(NullPointerException.class, () -> DateUtils.compareTime(null, null));
+    @DisplayName("DateUtils getIsoWeek when sunday returns week of previous monday")
+    public void shouldReturnSameWeekFromMondayToSunday() {
+        assertEquals(DateUtils.getIsoWeek(LocalDate.of(2020, 12, 28)), DateUtils.getIsoWeek(LocalDate.of(2021, 1, 3)));
+        assertEquals(202053, DateUtils.getIsoWeek(LocalDate.of(2021, 1, 3)));
     }
 
     @Test
-    @DisplayName("DateUtils compareTime when no colon found throws an exception")
-    public void shouldThrowAnExceptionIfNoColonFound() {
-        assertThrows(NumberFormatException.class, () -> DateUtils.compareTime("no_colon_here", "here_too"));
+    @DisplayName("DateUtils getIsoWeek when monday returns next week")
+    public void shouldReturnNextWeekOnMonday() {
+        assertEquals(202101, DateUtils.getIsoWeek(LocalDate.of(2021, 1, 4)));
     }
 
     @Test
-    @DisplayName("DateUtils compareTime when no colon found throws an exception")
-    public void shouldThrowAnExceptionIfEmptyString() {
-        assertThrows(NumberFormatException.class, () -> DateUtils.compareTime("", ""));
+    @DisplayName("DateUtils parseMinuteOfDay returns minutes passed since midnight")
+    public void shouldParseMinuteOfDay() {
+        assertEquals(510, DateUtils.parseMinuteOfDay("8:30"));
+        assertEquals(1439, DateUtils.parseMinuteOfDay("23:59"));
     }
 
     @Test
-    @DisplayName("DateUtils getCurrentTime always returns time in correct format")
-    public void shouldReturnTimeInValidFormat() {
-        String formatRegex = "[0-2][0-9]:[0-5][0-9]";
-        assertTrue(DateUtils.getCurrentTime().matches(formatRegex));
+    @DisplayName("DateUtils formatMinuteOfDay returns time with leading zeros")
+    public void shouldFormatMinuteOfDay() {
+        assertEquals("08:30", DateUtils.formatMinuteOfDay(510));
+        assertEquals("23:59", DateUtils.formatMinuteOfDay(1439));
     }
 }
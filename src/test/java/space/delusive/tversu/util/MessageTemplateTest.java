@@ -0,0 +1,30 @@
+package space.delusive.tversu.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MessageTemplateTest {
+    @Test
+    @DisplayName("MessageTemplate format replaces every occurrence of placeholders")
+    public void shouldReplacePlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("%day%: _%day% %week%_-недели");
+
+        assertEquals("понедельник: _понедельник плюс_-недели", template.format("day", "понедельник", "week", "плюс"));
+    }
+
+    @Test
+    @DisplayName("MessageTemplate format when value is not given keeps placeholder")
+    public void shouldKeepUnknownPlaceholder() {
+        assertEquals("С %start% до 10:05", MessageTemplate.compile("С %start% до %end%").format("end", "10:05"));
+    }
+
+    @Test
+    @DisplayName("MessageTemplate format when percent signs do not enclose a name keeps them as text")
+    public void shouldKeepPercentSigns() {
+        MessageTemplate template = MessageTemplate.compile("100% и 50 %, %group%");
+
+        assertEquals("100% и 50 %, 22", template.format("group", "22"));
+    }
+}
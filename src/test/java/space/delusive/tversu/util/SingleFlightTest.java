@@ -0,0 +1,68 @@
+package space.delusive.tversu.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+    private static final int FOLLOWERS_COUNT = 3;
+
+    @Test
+    @DisplayName("SingleFlight execute when called concurrently with the same key performs the call once")
+    public void shouldShareOneCallBetweenConcurrentCallers() throws Exception {
+        CountDownLatch followersJoined = new CountDownLatch(FOLLOWERS_COUNT);
+        AtomicInteger calls = new AtomicInteger();
+        SingleFlight<String, Integer, InterruptedException> singleFlight =
+                new SingleFlight<>(InterruptedException.class, followersJoined::countDown);
+        ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS_COUNT + 1);
+        try {
+            CountDownLatch leaderStarted = new CountDownLatch(1);
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                leaderStarted.countDown();
+                assertTrue(followersJoined.await(5, TimeUnit.SECONDS));
+                return calls.incrementAndGet();
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < FOLLOWERS_COUNT; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("key", calls::incrementAndGet)));
+            }
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("SingleFlight execute when call fails rethrows its checked exception")
+    public void shouldRethrowCheckedException() {
+        SingleFlight<String, Integer, IOException> singleFlight = new SingleFlight<>(IOException.class, () -> {});
+        assertThrows(IOException.class, () -> singleFlight.execute("key", () -> {
+            throw new IOException("upstream is down");
+        }));
+    }
+
+    @Test
+    @DisplayName("SingleFlight execute when previous call is finished performs a new call")
+    public void shouldNotReuseFinishedCall() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        SingleFlight<String, Integer, IOException> singleFlight = new SingleFlight<>(IOException.class, () -> {});
+        singleFlight.execute("key", calls::incrementAndGet);
+        assertEquals(2, singleFlight.execute("key", calls::incrementAndGet));
+    }
+}
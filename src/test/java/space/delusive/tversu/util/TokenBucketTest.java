@@ -0,0 +1,48 @@
+package space.delusive.tversu.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("TokenBucket reserve when bucket is full returns the requested time for the whole burst")
+    public void shouldGiveBurstImmediately() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+    }
+
+    @Test
+    @DisplayName("TokenBucket reserve when burst is spent returns times spaced by the refill interval")
+    public void shouldSpaceReservationsAfterBurst() {
+        TokenBucket bucket = new TokenBucket(2, 1);
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(SECOND / 2, bucket.reserve(0));
+        assertEquals(SECOND, bucket.reserve(0));
+    }
+
+    @Test
+    @DisplayName("TokenBucket reserve when bucket had time to refill returns the requested time")
+    public void shouldRefillWithTime() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(0);
+        assertFalse(bucket.isFull(SECOND / 2));
+        assertTrue(bucket.isFull(SECOND));
+        assertEquals(5 * SECOND, bucket.reserve(5 * SECOND));
+    }
+
+    @Test
+    @DisplayName("TokenBucket reserve when bucket is blocked returns times from the end of the block without burst")
+    public void shouldWaitForBlock() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        bucket.blockUntil(10 * SECOND);
+        assertEquals(10 * SECOND, bucket.reserve(0));
+        assertEquals(11 * SECOND, bucket.reserve(0));
+        assertEquals(12 * SECOND, bucket.reserve(0));
+    }
+}
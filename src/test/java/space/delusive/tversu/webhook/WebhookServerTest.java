@@ -0,0 +1,132 @@
+package space.delusive.tversu.webhook;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.generics.WebhookBot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WebhookServerTest {
+    private static final String SECRET_PATH = "updates-5f0c9a1e7b3d4c28";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private WebhookServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = new WebhookServer(new EchoBot(SECRET_PATH), 0, 1);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("WebhookServer when recorded update is posted answers with the method returned by the bot")
+    public void shouldAnswerWithMethod() throws IOException, InterruptedException {
+        byte[] update;
+        try (InputStream input = getClass().getResourceAsStream("/updates/text-message.json")) {
+            update = input.readAllBytes();
+        }
+
+        HttpResponse<String> response = post(HttpRequest.BodyPublishers.ofByteArray(update));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"method\":\"sendmessage\""));
+        assertTrue(response.body().contains("\"chat_id\":\"123456789\""));
+        assertTrue(response.body().contains("\"text\":\"Ближайшая пара\""));
+    }
+
+    @Test
+    @DisplayName("WebhookServer when body is not an update answers with bad request")
+    public void shouldRejectMalformedUpdate() throws IOException, InterruptedException {
+        assertEquals(400, post(HttpRequest.BodyPublishers.ofString("{\"update_id\":")).statusCode());
+    }
+
+    @Test
+    @DisplayName("WebhookServer when bot fails to handle update answers with internal server error")
+    public void shouldAnswerWithServerErrorWhenBotFails() throws IOException, InterruptedException {
+        // the echo bot fails on an update without message
+        assertEquals(500, post(HttpRequest.BodyPublishers.ofString("{\"update_id\":1}")).statusCode());
+    }
+
+    @Test
+    @DisplayName("WebhookServer when update is posted to another path answers with not found")
+    public void shouldRejectUpdateToAnotherPath() throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.ofString("{\"update_id\":1}");
+        assertEquals(404, post("/updates", body).statusCode());
+        assertEquals(404, post("/" + SECRET_PATH + "-guess", body).statusCode());
+    }
+
+    @Test
+    @DisplayName("WebhookServer when path of the bot is guessable throws IllegalArgumentException")
+    public void shouldRequireSecretPath() {
+        assertThrows(IllegalArgumentException.class, () -> new WebhookServer(new EchoBot("updates"), 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new WebhookServer(new EchoBot(""), 0, 1));
+    }
+
+    private HttpResponse<String> post(HttpRequest.BodyPublisher body) throws IOException, InterruptedException {
+        return post("/" + SECRET_PATH, body);
+    }
+
+    private HttpResponse<String> post(String path, HttpRequest.BodyPublisher body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header("Content-Type", "application/json")
+                .POST(body)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private static class EchoBot implements WebhookBot {
+        private final String path;
+
+        EchoBot(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public BotApiMethod<?> onWebhookUpdateReceived(Update update) {
+            return SendMessage.builder()
+                    .chatId(update.getMessage().getChatId().toString())
+                    .text(update.getMessage().getText())
+                    .build();
+        }
+
+        @Override
+        public void setWebhook(SetWebhook setWebhook) {
+        }
+
+        @Override
+        public String getBotPath() {
+            return path;
+        }
+
+        @Override
+        public String getBotUsername() {
+            return "test_bot";
+        }
+
+        @Override
+        public String getBotToken() {
+            return "token";
+        }
+    }
+}